@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Platform vs virtual threads under the same open-loop workload. Runs `./gradlew loadTest` once per mode
+# with identical settings and prints a markdown table (throughput, p50/p99/p99.9 over all operations)
+# preceded by the hardware and settings, ready to paste into docs/virtual-threads.md.
+# Extra arguments are passed to the app unchanged, e.g. a PostgreSQL datasource.
+#
+#   scripts/loadtest-compare.sh [-r rate] [-d seconds] [-n rows] [app args...]
+#   scripts/loadtest-compare.sh -r 2000 -d 120 --spring.datasource.url=jdbc:postgresql://db:5432/zentasks ...
+set -euo pipefail
+
+rate=2000
+duration=60
+rows=100000
+while getopts 'r:d:n:' opt; do
+  case $opt in
+    r) rate=$OPTARG ;;
+    d) duration=$OPTARG ;;
+    n) rows=$OPTARG ;;
+    *) echo "usage: $0 [-r rate] [-d seconds] [-n rows] [app args...]" >&2; exit 1 ;;
+  esac
+done
+shift $((OPTIND - 1))
+
+cd "$(dirname "$0")/.."
+out=build/reports/loadtest-compare
+rm -rf "$out"
+mkdir -p "$out"
+
+for virtual in false true; do
+  ./gradlew -q loadTest -Ploadtest.mode=open -Ploadtest.rate="$rate" -Ploadtest.durationSeconds="$duration" \
+    -Ploadtest.rows="$rows" --args="--spring.threads.virtual.enabled=$virtual $*" >&2
+  cp -r build/reports/loadtest "$out/virtual-$virtual"
+done
+
+# แถว "all" ของ summary.txt: operation requests errors req/s p50 p99 p99.9 max
+row() {
+  awk -v mode="$2" '
+    /^== open loop/ { match($0, /[0-9]+ dropped/); dropped = substr($0, RSTART, RLENGTH - 8) }
+    $1 == "all" { printf "| %s | %s | %s | %s | %s | %s | %s |\n", mode, $4, $5, $6, $7, $3, dropped }
+  ' "$1/summary.txt"
+}
+
+java_version=$(java -version 2>&1 | head -n 1)
+cpu=$(awk -F': ' '/^model name/ { print $2; exit }' /proc/cpuinfo 2>/dev/null || sysctl -n machdep.cpu.brand_string)
+memory=$(awk '/^MemTotal/ { printf "%.0f GiB", $2 / 1048576 }' /proc/meminfo 2>/dev/null || echo unknown)
+
+echo "Hardware: $cpu, $(nproc 2>/dev/null || sysctl -n hw.ncpu) CPUs, $memory; $java_version"
+echo "Settings: open loop, $rate req/s, ${duration} s after warmup, $rows rows, -Xmx1g, app args: ${*:-none}"
+echo
+echo "| Mode | req/s | p50 ms | p99 ms | p99.9 ms | errors | dropped |"
+echo "|---|---|---|---|---|---|---|"
+row "$out/virtual-false" platform
+row "$out/virtual-true" virtual
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Cold-start benchmark: time from `docker run` to the first 200 from GET /api/todos, and the RSS of the
+# JVM right after it. Starts a throwaway PostgreSQL container; every run uses a fresh app container.
+#
+#   scripts/startup-benchmark.sh [-n runs] image [image...]
+#   scripts/startup-benchmark.sh -n 5 zentasks zentasks:aot
+set -euo pipefail
+
+runs=5
+if [[ "${1:-}" == "-n" ]]; then
+  runs=$2
+  shift 2
+fi
+if [[ $# -eq 0 ]]; then
+  echo "usage: $0 [-n runs] image [image...]" >&2
+  exit 1
+fi
+
+network=zentasks-startup-bench
+db=zentasks-startup-db
+app=zentasks-startup-app
+port=18080
+
+cleanup() {
+  docker rm -f "$app" "$db" >/dev/null 2>&1 || true
+  docker network rm "$network" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+cleanup
+
+docker network create "$network" >/dev/null
+docker run -d --name "$db" --network "$network" \
+  -e POSTGRES_DB=zentasks -e POSTGRES_USER=zentasks -e POSTGRES_PASSWORD=zentasks postgres:16 >/dev/null
+until docker exec "$db" pg_isready -U zentasks -d zentasks >/dev/null 2>&1; do sleep 0.5; done
+
+now_ms() { date +%s%3N; }
+
+median() { sort -n | awk '{ a[NR] = $1 } END { print (NR % 2) ? a[(NR + 1) / 2] : int((a[NR / 2] + a[NR / 2 + 1]) / 2) }'; }
+
+printf '%-30s %6s %16s %12s\n' image runs first-200-ms rss-mib
+for image in "$@"; do
+  times=()
+  rss=()
+  for ((i = 1; i <= runs; i++)); do
+    start=$(now_ms)
+    docker run -d --name "$app" --network "$network" -p "$port:8080" \
+      -e JDBC_DATABASE_URL="jdbc:postgresql://$db:5432/zentasks" \
+      -e JDBC_DATABASE_USERNAME=zentasks -e JDBC_DATABASE_PASSWORD=zentasks \
+      "$image" >/dev/null
+    until [[ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$port/api/todos")" == "200" ]]; do
+      if [[ "$(docker inspect -f '{{.State.Running}}' "$app")" != "true" ]]; then
+        docker logs "$app" >&2
+        exit 1
+      fi
+      sleep 0.05
+    done
+    times+=($(($(now_ms) - start)))
+    # java เป็น PID 1 ใน container (ENTRYPOINT/CMD แบบ exec)
+    rss+=($(docker exec "$app" awk '/VmRSS/ { print int($2 / 1024) }' /proc/1/status))
+    docker rm -f "$app" >/dev/null
+  done
+  printf '%-30s %6d %16s %12s\n' "$image" "$runs" \
+    "$(printf '%s\n' "${times[@]}" | median)" "$(printf '%s\n' "${rss[@]}" | median)"
+done
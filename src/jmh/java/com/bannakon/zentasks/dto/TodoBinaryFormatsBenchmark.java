@@ -0,0 +1,97 @@
+package com.bannakon.zentasks.dto;
+
+import com.bannakon.zentasks.config.BinaryFormatsConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a todo list page per wire format, with the ObjectMapper settings the converters use.
+ * Payload sizes are reported next to the timings as the {@code encodedBytes} and {@code encodes} counters of
+ * {@link #encode}: bytes per page is their ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoBinaryFormatsBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"50", "500"})
+    int size;
+
+    private List<TodoResponse> todos;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "cbor" -> BinaryFormatsConfig.epochTimestamps(Jackson2ObjectMapperBuilder.cbor()).build();
+            case "smile" -> BinaryFormatsConfig.epochTimestamps(Jackson2ObjectMapperBuilder.smile()).build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        CollectionType listType = mapper.getTypeFactory().constructCollectionType(List.class, TodoResponse.class);
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+
+        LocalDateTime now = LocalDateTime.now();
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(new TodoResponse((long) i, "Todo number " + i + " with a realistic title",
+                    i % 3 == 0, now.minusSeconds(i), now));
+        }
+        encoded = writer.writeValueAsBytes(todos);
+    }
+
+    // EVENTS ถูกรวมข้ามทุก iteration และ thread: ส่งคู่ byte กับจำนวนครั้ง ขนาดต่อหน้าคือผลหาร
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long encodedBytes;
+        public long encodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+            encodes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(todos);
+        payload.encodedBytes += bytes.length;
+        payload.encodes++;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<TodoResponse> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
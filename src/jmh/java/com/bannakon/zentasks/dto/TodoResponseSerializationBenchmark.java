@@ -0,0 +1,110 @@
+package com.bannakon.zentasks.dto;
+
+import com.bannakon.zentasks.json.TodoListJsonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON body of GET /api/todos and /filter, with the same ObjectMapper settings Spring Boot applies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoResponseSerializationBenchmark {
+
+    @Param({"50", "500", "10000"})
+    int size;
+
+    private List<TodoResponse> todos;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private Type listType;
+    private TodoListJsonConverter fragmentConverter;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        listType = ResolvableType.forClassWithGenerics(List.class, TodoResponse.class).getType();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructType(listType));
+        fragmentConverter = new TodoListJsonConverter(objectMapper, 100_000);
+
+        LocalDateTime now = LocalDateTime.now();
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(new TodoResponse((long) i, "Todo number " + i + " with a realistic title",
+                    i % 3 == 0, now.minusSeconds(i), now));
+        }
+    }
+
+    // What the message converter does without a type hint: type lookup per call, full byte[] in memory
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    // Pre-resolved writer streaming straight to the response, no intermediate buffer
+    @Benchmark
+    public void writeToStream(Blackhole blackhole) throws IOException {
+        OutputStream out = new BlackholeOutputStream(blackhole);
+        listWriter.writeValue(out, todos);
+    }
+
+    // Repeated poll of an unchanged page: every todo is already a cached fragment after the first call
+    @Benchmark
+    public void writeCachedFragments(Blackhole blackhole) throws IOException {
+        OutputStream out = new BlackholeOutputStream(blackhole);
+        HttpHeaders headers = new HttpHeaders();
+        fragmentConverter.write(todos, listType, MediaType.APPLICATION_JSON, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return out;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        private BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bannakon.zentasks.exception;
+
+import com.bannakon.zentasks.dto.ErrorResponse;
+import com.bannakon.zentasks.dto.TodoRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+// Error-body creation for the common 400/404 responses (exception construction included, as in production)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/api/todos/42");
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return handler.handleResponseStatus(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo not found with id: 42"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailed() {
+        TodoRequest body = new TodoRequest();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(body, "todoRequest");
+        bindingResult.rejectValue("title", "NotBlank", "Title is required");
+        bindingResult.rejectValue("title", "Size", "Title must be between 2 and 255 characters");
+        return handler.handleValidationException(new MethodArgumentNotValidException(null, bindingResult), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> unexpected() {
+        return handler.handleGenericException(new IllegalStateException("boom"), request);
+    }
+}
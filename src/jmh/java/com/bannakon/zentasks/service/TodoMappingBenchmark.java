@@ -0,0 +1,44 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.entity.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TodoService.toResponse: Todo -> TodoResponse for every TodoController single-todo and batch response,
+// the change events of every write path, and the entity-based reads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoMappingBenchmark {
+
+    @Param({"1", "500", "10000"})
+    int size;
+
+    private List<Todo> todos;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(new Todo((long) i, "Todo " + i, i % 3 == 0, now.minusSeconds(i), now));
+        }
+    }
+
+    @Benchmark
+    public List<TodoResponse> mapList() {
+        return todos.stream().map(TodoService::toResponse).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.entity.Todo;
+import com.bannakon.zentasks.repository.TodoRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Managed entities + mapping (the list path before the projection change) vs the JPQL constructor
+// projection. Run with the gc profiler (on by default) to compare gc.alloc.rate.norm per page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoReadPathBenchmark {
+
+    @Param({"50", "500"})
+    int pageSize;
+
+    private TodoRepository todoRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp(ZentasksContext ctx) {
+        todoRepository = ctx.context.getBean(TodoRepository.class);
+        entityManager = ctx.context.getBean(EntityManager.class);
+        PlatformTransactionManager transactionManager = ctx.context.getBean(PlatformTransactionManager.class);
+        transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<TodoResponse> entities() {
+        return transaction.execute(status -> entityManager
+                .createQuery("select t from Todo t order by t.createdAt asc, t.id asc", Todo.class)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(TodoService::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TodoResponse> projection() {
+        return readOnlyTransaction.execute(status -> todoRepository.findFirstPage(PageRequest.ofSize(pageSize)));
+    }
+}
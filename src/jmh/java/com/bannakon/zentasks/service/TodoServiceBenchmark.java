@@ -0,0 +1,64 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.CursorPage;
+import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.dto.UpdateTodoRequest;
+import com.bannakon.zentasks.entity.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TodoService through its Spring proxy (transactions, stats, events) against H2; the cache is disabled
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoServiceBenchmark {
+
+    @Benchmark
+    public CursorPage<TodoResponse> firstPage(ZentasksContext ctx) {
+        return ctx.todoService.getAllDataTodos(null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<TodoResponse> middlePage(ZentasksContext ctx) {
+        return ctx.todoService.getAllDataTodos(ctx.middleCursor, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<TodoResponse> completedFirstPage(ZentasksContext ctx) {
+        return ctx.todoService.getTodosByCompletion(true, null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Todo getById(ZentasksContext ctx) {
+        return ctx.todoService.getTodo(randomId(ctx));
+    }
+
+    @Benchmark
+    public List<TodoResponse> search(ZentasksContext ctx) {
+        return ctx.todoService.searchTodos("number 42", 0, 20);
+    }
+
+    // Grows the table by one row per invocation; compare runs with the same warmup/iteration settings
+    @Benchmark
+    public Todo create(ZentasksContext ctx) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Benchmark todo");
+        return ctx.todoService.createDataTodo(request);
+    }
+
+    @Benchmark
+    public Todo updateTitle(ZentasksContext ctx) {
+        long id = randomId(ctx);
+        return ctx.todoService.updateTodo(id, new UpdateTodoRequest("Renamed todo " + id, null), null);
+    }
+
+    private static long randomId(ZentasksContext ctx) {
+        return ThreadLocalRandom.current().nextLong(ctx.minId, ctx.maxId + 1);
+    }
+}
@@ -0,0 +1,46 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.ZentasksApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Boots the application (no web server) on H2 in PostgreSQL mode and seeds it once per trial
+@State(Scope.Benchmark)
+public class ZentasksContext {
+
+    @Param({"10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    TodoService todoService;
+    long minId;
+    long maxId;
+    // cursor pointing at the middle of the table, for "deep page" reads
+    String middleCursor;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ZentasksApplication.class)
+                .profiles("bench")
+                .web(WebApplicationType.NONE)
+                .run();
+        todoService = context.getBean(TodoService.class);
+
+        SeededTodos seeded = SeededTodos.seed(todoService, rows);
+        minId = seeded.minId();
+        maxId = seeded.maxId();
+        middleCursor = seeded.middleCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.bannakon.zentasks.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// One HDR histogram (microseconds) and error counter per operation, plus an "all" histogram
+final class LatencyRecorder {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private final Histogram all = newHistogram();
+
+    LatencyRecorder() {
+        for (Workload.Operation operation : Workload.OPERATIONS) {
+            histograms.put(operation.name(), newHistogram());
+            errors.put(operation.name(), new LongAdder());
+        }
+    }
+
+    void record(String operation, long latencyNanos, boolean ok) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKABLE_MICROS);
+        histograms.get(operation).recordValue(micros);
+        all.recordValue(micros);
+        if (!ok) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        all.reset();
+    }
+
+    // Writes <name>.hgrm percentile distributions (milliseconds) and prints a summary table
+    void report(String run, long dropped, double seconds, Path directory, PrintStream summary) throws IOException {
+        Files.createDirectories(directory);
+        summary.printf("%n== %s (%.0f s, %d dropped) ==%n", run, seconds, dropped);
+        summary.printf("%-14s %10s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalErrors = 0;
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            long operationErrors = errors.get(entry.getKey()).sum();
+            totalErrors += operationErrors;
+            printRow(summary, entry.getKey(), entry.getValue(), operationErrors, seconds);
+            write(directory.resolve(entry.getKey() + ".hgrm"), entry.getValue());
+        }
+        printRow(summary, "all", all, totalErrors, seconds);
+        write(directory.resolve("all.hgrm"), all);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-14s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(1, MAX_TRACKABLE_MICROS, 3);
+    }
+}
@@ -0,0 +1,161 @@
+package com.bannakon.zentasks.loadtest;
+
+import com.bannakon.zentasks.ZentasksApplication;
+import com.bannakon.zentasks.service.SeededTodos;
+import com.bannakon.zentasks.service.TodoService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application on an embedded H2 database, seeds it and drives a mixed /api/todos workload over HTTP.
+ * <p>
+ * closed loop: a fixed number of workers each send their next request as soon as the previous one returns,
+ * which finds the maximum throughput. open loop: requests start at a constant arrival rate whether or not
+ * earlier ones finished, and latency is measured from the intended start time, so a stalled server shows up
+ * in the percentiles instead of silently lowering the request rate (coordinated omission).
+ * <p>
+ * Settings are system properties, see the loadTest task in build.gradle. Program arguments are passed to
+ * Spring Boot, e.g. --spring.threads.virtual.enabled=true.
+ */
+public final class LoadTest {
+
+    // above this many outstanding requests the open-loop generator drops arrivals and reports them
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    private final long rows = Long.getLong("loadtest.rows", 100_000);
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 15));
+    private final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60));
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final int rate = Integer.getInteger("loadtest.rate", 500);
+    private final String mode = System.getProperty("loadtest.mode", "both");
+    private final Path reportDirectory = Path.of(System.getProperty("loadtest.reportDir", "build/reports/loadtest"));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run(args);
+    }
+
+    private void run(String[] args) throws IOException {
+        if (!List.of("closed", "open", "both").contains(mode)) {
+            throw new IllegalArgumentException("loadtest.mode must be closed, open or both: " + mode);
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ZentasksApplication.class)
+                .profiles("loadtest")
+                .run(args)) {
+            Workload workload = seed(context);
+            ByteArrayOutputStream summary = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(summary, true, StandardCharsets.UTF_8);
+            out.printf("rows=%d warmup=%ds duration=%ds concurrency=%d rate=%d/s%n",
+                    rows, warmup.toSeconds(), duration.toSeconds(), concurrency, rate);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            if (mode.equals("closed") || mode.equals("both")) {
+                closedLoop(workload, recorder, warmup);
+                recorder.reset();
+                closedLoop(workload, recorder, duration);
+                recorder.report("closed loop, " + concurrency + " workers", 0, duration.toSeconds(),
+                        reportDirectory.resolve("closed"), out);
+                recorder.reset();
+            }
+            if (mode.equals("open") || mode.equals("both")) {
+                openLoop(workload, recorder, warmup);
+                recorder.reset();
+                long dropped = openLoop(workload, recorder, duration);
+                recorder.report("open loop, " + rate + " req/s", dropped, duration.toSeconds(),
+                        reportDirectory.resolve("open"), out);
+            }
+
+            Files.createDirectories(reportDirectory);
+            Files.write(reportDirectory.resolve("summary.txt"), summary.toByteArray());
+            System.out.print(summary.toString(StandardCharsets.UTF_8));
+            System.out.println("HDR histograms written to " + reportDirectory.toAbsolutePath());
+        }
+    }
+
+    private Workload seed(ConfigurableApplicationContext context) {
+        SeededTodos seeded = SeededTodos.seed(context.getBean(TodoService.class), rows);
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        return new Workload("http://localhost:" + port, seeded.minId(), seeded.maxId(), seeded.middleCursor());
+    }
+
+    private void closedLoop(Workload workload, LatencyRecorder recorder, Duration length) {
+        long deadline = System.nanoTime() + length.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Workload.Operation operation = workload.next();
+                        long start = System.nanoTime();
+                        boolean ok = send(workload, operation);
+                        recorder.record(operation.name(), System.nanoTime() - start, ok);
+                    }
+                });
+            }
+        }
+    }
+
+    private long openLoop(Workload workload, LatencyRecorder recorder, Duration length) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        LongAdder dropped = new LongAdder();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long intended = start; intended < end; intended += interval) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    dropped.increment();
+                    continue;
+                }
+                long intendedStart = intended;
+                Workload.Operation operation = workload.next();
+                senders.submit(() -> {
+                    try {
+                        boolean ok = send(workload, operation);
+                        recorder.record(operation.name(), System.nanoTime() - intendedStart, ok);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return dropped.sum();
+    }
+
+    private boolean send(Workload workload, Workload.Operation operation) {
+        try {
+            HttpResponse<?> response = client.send(workload.request(operation), workload.bodyHandler(operation));
+            workload.completed(operation, response);
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
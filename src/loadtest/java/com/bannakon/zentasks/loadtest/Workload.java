@@ -0,0 +1,150 @@
+package com.bannakon.zentasks.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Weighted mix of /api/todos requests. Deletes only remove todos this run created (ids read from the create
+// responses), so reads and updates keep hitting the seeded rows. Not included: the filter-based bulk forms
+// (PATCH createdBefore, DELETE ?completed=), which rewrite or empty the whole table.
+final class Workload {
+
+    /**
+     * @param consumes created todos one request deletes; the operation is only picked once that many exist
+     */
+    record Operation(String name, int weight, boolean write, int consumes) {
+    }
+
+    private static final int BULK_SIZE = 5;
+
+    static final List<Operation> OPERATIONS = List.of(
+            new Operation("list", 28, false, 0),
+            new Operation("list-middle", 10, false, 0),
+            new Operation("filter", 10, false, 0),
+            new Operation("get", 22, false, 0),
+            new Operation("search", 5, false, 0),
+            new Operation("export", 1, false, 0),
+            new Operation("create", 12, true, 0),
+            new Operation("update", 6, true, 0),
+            new Operation("bulk-complete", 2, true, 0),
+            new Operation("delete", 3, true, 1),
+            new Operation("bulk-delete", 1, true, BULK_SIZE)
+    );
+
+    private static final Operation CREATE = OPERATIONS.stream()
+            .filter(operation -> operation.name().equals("create")).findFirst().orElseThrow();
+    private static final Pattern CREATED_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int TOTAL_WEIGHT = OPERATIONS.stream().mapToInt(Operation::weight).sum();
+
+    private final String baseUrl;
+    private final long minId;
+    private final long maxId;
+    private final String middleCursor;
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+
+    Workload(String baseUrl, long minId, long maxId, String middleCursor) {
+        this.baseUrl = baseUrl;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.middleCursor = middleCursor;
+    }
+
+    Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Operation operation : OPERATIONS) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                // create มี weight มากกว่าที่ delete ใช้ไป: หลัง warmup แทบไม่ต้องเปลี่ยนเป็น create
+                return operation.consumes() > 0 && created.size() < operation.consumes() ? CREATE : operation;
+            }
+        }
+        throw new IllegalStateException("weights do not add up");
+    }
+
+    HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(minId, maxId + 1);
+        return switch (operation.name()) {
+            case "list" -> get("/api/todos?limit=50");
+            case "list-middle" -> get("/api/todos?limit=50&cursor=" + middleCursor);
+            case "filter" -> get("/api/todos/filter?completed=" + random.nextBoolean() + "&limit=50");
+            case "get" -> get("/api/todos/" + id);
+            case "search" -> get("/api/todos/search?q=number+" + random.nextInt(1_000));
+            case "export" -> get("/api/todos/export?completed=true");
+            case "create" -> json("POST", "/api/todos", "{\"title\":\"Load test todo " + random.nextInt() + "\"}");
+            case "update" -> json("PUT", "/api/todos/" + id, "{\"title\":\"Renamed todo " + random.nextInt() + "\"}");
+            case "bulk-complete" -> json("PATCH", "/api/todos/completion",
+                    "{\"ids\":" + seededIds(random) + ",\"completed\":" + random.nextBoolean() + "}");
+            case "delete" -> delete("/api/todos/" + createdIds(1).get(0));
+            case "bulk-delete" -> delete("/api/todos?ids=" + String.join(",",
+                    createdIds(BULK_SIZE).stream().map(String::valueOf).toList()));
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation.name());
+        };
+    }
+
+    // อ่าน body เฉพาะ create (เอา id ไปให้ delete); ที่เหลือทิ้ง body ไม่ให้การเก็บ string (เช่น export) มาปนกับ latency
+    HttpResponse.BodyHandler<?> bodyHandler(Operation operation) {
+        return operation == CREATE ? HttpResponse.BodyHandlers.ofString() : HttpResponse.BodyHandlers.discarding();
+    }
+
+    void completed(Operation operation, HttpResponse<?> response) {
+        if (operation == CREATE && response.statusCode() == 201 && response.body() instanceof String body) {
+            Matcher id = CREATED_ID.matcher(body);
+            if (id.find()) {
+                created.add(Long.valueOf(id.group(1)));
+            }
+        }
+    }
+
+    private List<Long> seededIds(ThreadLocalRandom random) {
+        List<Long> ids = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            ids.add(random.nextLong(minId, maxId + 1));
+        }
+        return ids;
+    }
+
+    // next() เลือก delete เมื่อมี id พอแล้ว แต่ worker อื่นอาจหยิบไปก่อน: id 0 ไม่มีอยู่จริง ได้ 404 (นับเป็น error)
+    private List<Long> createdIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        Long id;
+        while (ids.size() < count && (id = created.poll()) != null) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            ids.add(0L);
+        }
+        return ids;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .DELETE()
+                .build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bannakon.zentasks.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Binary encodings of the same DTOs, picked by the Accept header: {@code application/cbor} and
+ * {@code application/x-jackson-smile}. JSON stays the default because its converter comes first.
+ * <p>
+ * Timestamps are epoch milliseconds instead of ISO strings. {@code LocalDateTime} values are written by
+ * this server in its own time zone, so that zone turns them into instants (and back, for request bodies).
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // ชนิดเดียวกับ converter ที่ Spring MVC ใส่ให้อัตโนมัติเมื่อมี dataformat บน classpath จึงแทนที่ในตำแหน่งเดิม (หลัง JSON)
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(epochTimestamps(builder).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(epochTimestamps(builder).factory(new SmileFactory()).build());
+    }
+
+    public static Jackson2ObjectMapperBuilder epochTimestamps(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .serializerByType(LocalDateTime.class, new EpochMillisSerializer())
+                .deserializerByType(LocalDateTime.class, new EpochMillisDeserializer());
+    }
+
+    static final class EpochMillisSerializer extends StdScalarSerializer<LocalDateTime> {
+
+        EpochMillisSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.atZone(ZONE).toInstant().toEpochMilli());
+        }
+    }
+
+    static final class EpochMillisDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+        EpochMillisDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        // รับทั้ง epoch millis และ ISO string (client ที่ยังส่งแบบเดียวกับ JSON)
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLongValue()), ZONE);
+            }
+            if (p.hasToken(JsonToken.VALUE_STRING)) {
+                return LocalDateTime.parse(p.getText().trim());
+            }
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        }
+    }
+}
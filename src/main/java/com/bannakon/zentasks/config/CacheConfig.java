@@ -0,0 +1,50 @@
+package com.bannakon.zentasks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * In-process read-through cache for todos. Evictions are deferred until the surrounding transaction
+ * commits; a read that loaded the pre-commit state while that evict ran, or that was served by a read
+ * replica, is not cached ({@link GuardedCaffeineCache}). Cached values are detached snapshots, never
+ * managed entities.
+ * Set {@code zentasks.cache.enabled=false} to swap in a no-op cache for latency comparisons.
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    public static final String TODO_BY_ID = "todoById";
+    public static final String TODO_PAGES = "todoPages";
+
+    @Bean
+    @ConditionalOnProperty(name = "zentasks.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager cacheManager(@Value("${zentasks.cache.spec}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new GuardedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setAllowNullValues(false);
+        caffeineCacheManager.setCacheNames(List.of(TODO_BY_ID, TODO_PAGES));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "zentasks.cache.enabled", havingValue = "false")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+}
@@ -0,0 +1,39 @@
+package com.bannakon.zentasks.config;
+
+import com.bannakon.zentasks.datasource.BulkheadDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode only: wraps the application {@link DataSource} in a {@link BulkheadDataSource} sized to
+ * the connection pool, with its own short acquire timeout ({@code zentasks.virtual-threads.db-acquire-timeout}).
+ * Platform-thread mode keeps Hikari's default connection timeout; Tomcat's thread pool bounds it already.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadWrapper(Environment environment) {
+        int permits = environment.getProperty("zentasks.virtual-threads.db-permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("zentasks.virtual-threads.db-acquire-timeout",
+                Duration.class, Duration.ofSeconds(2));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, permits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package com.bannakon.zentasks.config;
+
+import com.bannakon.zentasks.datasource.ReplicaRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine cache that drops read-through puts which raced with an invalidation.
+ * <p>
+ * {@code @Cacheable} is a miss, a load and a put. If a write commits and evicts while the load is
+ * running, the load may still hold the pre-commit snapshot, and putting it afterwards would cache stale
+ * data for the whole TTL. Every evict/clear bumps a generation; a put is only applied when the generation
+ * is still the one seen at the miss on the same thread. A dropped put only costs one extra miss.
+ * <p>
+ * With read replicas, a load served by a replica may lag behind the write that just evicted the entry, so
+ * it is not cached either: entries only ever come from the primary. Inside the read-your-writes window
+ * ({@link ReplicaRouting#isPrimaryOnly()}) lookups are skipped and the primary's value replaces the entry.
+ */
+@Slf4j
+class GuardedCaffeineCache extends CaffeineCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    private record Miss(long generation, long replicaReads) {
+    }
+
+    GuardedCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = ReplicaRouting.isPrimaryOnly() ? null : super.lookup(key);
+        if (value == null) {
+            lastMiss.set(new Miss(generation.get(), ReplicaRouting.replicaReads()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (ReplicaRouting.isPrimaryOnly()) {
+            evict(key);
+        }
+        long seen = generation.get();
+        long replicaReads = ReplicaRouting.replicaReads();
+        T value = super.get(key, valueLoader);
+        if (seen != generation.get() || replicaReads != ReplicaRouting.replicaReads()) {
+            super.evict(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (isCurrent(key)) {
+            super.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (isCurrent(key)) {
+            return super.putIfAbsent(key, value);
+        }
+        return null;
+    }
+
+    // นับ generation ก่อนลบจริง: put ที่แทรกเข้ามาระหว่างสองขั้นนี้ก็ยังถูกปฏิเสธ
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generation.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        return super.invalidate();
+    }
+
+    // put ที่ไม่มี miss นำหน้าบน thread นี้ (เช่น @CachePut) ไม่ได้อ่านข้อมูลเก่ามา จึงผ่าน
+    private boolean isCurrent(Object key) {
+        Miss miss = lastMiss.get();
+        lastMiss.remove();
+        if (miss == null) {
+            return true;
+        }
+        if (miss.generation() != generation.get()) {
+            log.debug("Skipped caching {} in {}: invalidated while loading", key, getName());
+            return false;
+        }
+        if (miss.replicaReads() != ReplicaRouting.replicaReads()) {
+            log.debug("Skipped caching {} in {}: loaded from a read replica", key, getName());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bannakon.zentasks.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * R2DBC connection pool for the reactive read endpoints ({@code reactive} profile).
+ * <p>
+ * The pool is deliberately not a {@code ConnectionFactory} bean: Spring Boot's R2DBC auto-configuration is
+ * excluded and SQL initialization / transaction management must stay on the JDBC DataSource used by JPA.
+ * Writes never go through this pool.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveReadConfig {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${zentasks.r2dbc.url}") String url,
+                                                 @Value("${zentasks.r2dbc.username:}") String username,
+                                                 @Value("${zentasks.r2dbc.password:}") String password,
+                                                 @Value("${zentasks.r2dbc.pool.max-size:20}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.bannakon.zentasks.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (write-behind flush, SSE heartbeats, replica health checks, tombstone purge, archiving).
+ * Runs on Spring Boot's task scheduler, which uses virtual threads when {@code spring.threads.virtual.enabled=true}
+ * and a single platform thread otherwise, so jobs must return quickly; long ones (the archiver) hand their
+ * work to their own executor.
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
@@ -0,0 +1,111 @@
+package com.bannakon.zentasks.config;
+
+import com.bannakon.zentasks.entity.Todo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data fixes that {@code ddl-auto=update} can't make on an existing database (it only adds tables and
+ * columns). Each step is idempotent and runs at startup before the other ready listeners, and before the
+ * readiness state switches to accepting traffic.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaUpgrade {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void upgrade() {
+        try {
+            backfillCreatedAt();
+        } catch (DataAccessException e) {
+            log.error("Schema upgrade failed, todos without created_at can't be paged past: {}", e.getMessage());
+        }
+        try {
+            backfillUpdatedAt();
+        } catch (DataAccessException e) {
+            log.error("Schema upgrade failed, todos without updated_at are missing from delta sync: {}", e.getMessage());
+        }
+        try {
+            stripeDailyStats();
+        } catch (DataAccessException e) {
+            log.error("Schema upgrade failed, todo statistics stay on one row per day: {}", e.getMessage());
+        }
+        try {
+            advanceTodoSequence();
+        } catch (DataAccessException e) {
+            log.error("Schema upgrade failed, new todos may collide with existing ids: {}", e.getMessage());
+        }
+    }
+
+    // แถวเก่าจาก baseline อาจมี created_at เป็น null: keyset (created_at, id) เรียงไว้ท้ายสุดและ encode เป็น cursor ไม่ได้
+    // จึงเติมค่าแล้วใส่ NOT NULL (ตรวจก่อน เพราะ SET NOT NULL ต้องสแกนทั้งตารางภายใต้ exclusive lock)
+    void backfillCreatedAt() {
+        int filled = jdbcTemplate.update(
+                "update todos set created_at = coalesce(updated_at, localtimestamp) where created_at is null");
+        if (filled > 0) {
+            log.info("Backfilled created_at on {} todos", filled);
+        }
+        List<String> nullable = jdbcTemplate.queryForList(
+                "select is_nullable from information_schema.columns where table_schema = current_schema " +
+                        "and lower(table_name) = 'todos' and lower(column_name) = 'created_at'", String.class);
+        if (nullable.contains("YES")) {
+            jdbcTemplate.execute("alter table todos alter column created_at set not null");
+            log.info("Added NOT NULL to todos.created_at");
+        }
+    }
+
+    // delta sync อ่านตาม updated_at: แถวที่ยังเป็น null ไม่เคยถูกส่งให้ client (รันหลัง backfillCreatedAt)
+    void backfillUpdatedAt() {
+        int filled = jdbcTemplate.update("update todos set updated_at = created_at where updated_at is null");
+        if (filled > 0) {
+            log.info("Backfilled updated_at on {} todos", filled);
+        }
+    }
+
+    // baseline ใช้ IDENTITY: ddl-auto สร้าง todos_seq ใหม่เริ่มที่ 1 ทั้งที่มีแถวอยู่แล้ว → insert แรกๆ ชน primary key
+    // pooled optimizer แจก id (ค่าที่ได้ - 50, ค่าที่ได้] จึงต้องให้ค่าถัดไปไม่ต่ำกว่า max(id) + 50
+    // ตรวจด้วย nextval (ได้ช่องว่าง 1 block ต่อการ start หนึ่งครั้ง) และไม่ถอยหลังเด็ดขาด: instance อื่นอาจถือ block อยู่
+    void advanceTodoSequence() {
+        long maxId = jdbcTemplate.queryForObject(
+                "select coalesce(max(id), 0) from (select id from todos union all select id from todos_archive) ids",
+                Long.class);
+        long next = jdbcTemplate.queryForObject("select nextval('todos_seq')", Long.class);
+        if (next < maxId) {
+            long restartWith = maxId + Todo.ID_ALLOCATION_SIZE;
+            jdbcTemplate.execute("alter sequence todos_seq restart with " + restartWith);
+            log.info("Advanced todos_seq from {} to {} (max todo id {})", next, restartWith, maxId);
+        }
+    }
+
+    // ddl-auto เพิ่ม column stripe (default 0) ให้แล้ว แต่ไม่เปลี่ยน primary key เดิม (stat_date) เป็น (stat_date, stripe)
+    void stripeDailyStats() {
+        List<Map<String, Object>> primaryKey = jdbcTemplate.queryForList(
+                "select tc.constraint_name, kcu.column_name from information_schema.table_constraints tc " +
+                        "join information_schema.key_column_usage kcu on kcu.constraint_schema = tc.constraint_schema " +
+                        "and kcu.constraint_name = tc.constraint_name " +
+                        "where tc.table_schema = current_schema and lower(tc.table_name) = 'todo_daily_stats' " +
+                        "and tc.constraint_type = 'PRIMARY KEY'");
+        if (primaryKey.isEmpty()
+                || primaryKey.stream().anyMatch(column -> "stripe".equalsIgnoreCase((String) column.get("column_name")))) {
+            return;
+        }
+        // statement เดียว: ไม่มีช่วงที่ตารางไม่มี primary key
+        jdbcTemplate.execute("alter table todo_daily_stats drop constraint " + primaryKey.get(0).get("constraint_name") +
+                ", add primary key (stat_date, stripe)");
+        log.info("Changed todo_daily_stats primary key to (stat_date, stripe)");
+    }
+}
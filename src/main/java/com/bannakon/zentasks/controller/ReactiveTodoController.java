@@ -0,0 +1,32 @@
+package com.bannakon.zentasks.controller;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.service.ReactiveTodoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+// Spring MVC เขียน Flux แบบ NDJSON ทีละรายการตามที่ client รับไหว และคืน servlet thread ระหว่างรอ database
+@RequestMapping("/api/reactive/todos")
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTodoController {
+
+    private final ReactiveTodoService reactiveTodoService;
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TodoResponse> streamTodos() {
+        return reactiveTodoService.streamTodos();
+    }
+
+    @GetMapping(value = "/filter", params = "completed", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TodoResponse> streamTodosByCompleted(@RequestParam boolean completed) {
+        return reactiveTodoService.streamTodosByCompletion(completed);
+    }
+}
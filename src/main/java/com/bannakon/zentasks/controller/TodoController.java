@@ -1,17 +1,36 @@
 package com.bannakon.zentasks.controller;
 
+import com.bannakon.zentasks.dto.BatchCreateResponse;
+import com.bannakon.zentasks.dto.BulkCompletionRequest;
+import com.bannakon.zentasks.dto.BulkOperationResponse;
+import com.bannakon.zentasks.dto.CursorPage;
+import com.bannakon.zentasks.dto.ErrorResponse;
 import com.bannakon.zentasks.dto.TodoRequest;
 import com.bannakon.zentasks.dto.TodoResponse;
 import com.bannakon.zentasks.dto.UpdateTodoRequest;
 import com.bannakon.zentasks.entity.Todo;
+import com.bannakon.zentasks.service.TodoExportService;
 import com.bannakon.zentasks.service.TodoService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RequestMapping("/api/todos")
@@ -19,43 +38,109 @@ import java.util.List;
 @RequiredArgsConstructor // สร้าง constructor ที่รับ ค่าพารามิเตอร์สำหรับทุก final field และทุก field ที่ถูก @NonNull (ถ้ามี)
 public class TodoController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_BATCH_SIZE = 100_000;
+
     private final TodoService todoService;
+    private final TodoExportService todoExportService;
+    private final Validator validator;
 
     @GetMapping
-    public ResponseEntity<List<TodoResponse>> getAllTodos() {
-        List<TodoResponse> todos = todoService.getAllDataTodos()
-                .stream()
-                .map(todo-> new TodoResponse(
-                        todo.getId(),
-                        todo.getTitle(),
-                        todo.isCompleted(),
-                        todo.getCreatedAt(),
-                        todo.getUpdatedAt()
-                ))
-                .toList();
-
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<List<TodoResponse>> getAllTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest webRequest) {
+        CursorPage<TodoResponse> page = includeArchived
+                ? todoService.getAllDataTodosIncludingArchived(cursor, limit)
+                : todoService.getAllDataTodos(cursor, limit);
+        // ETag มาจาก version ที่อ่านพร้อมหน้านี้ (หรือ cache มาพร้อมกัน) ไม่เปลี่ยน → 304 ไม่ต้อง serialize list
+        if (webRequest.checkNotModified(TodoEtags.ofPage(page, webRequest.getHeader(HttpHeaders.ACCEPT), cursor, limit, includeArchived))) {
+            return null;
+        }
+        return pageResponse(page);
+    }
+
+    // ค้นหาจาก title เรียงตามความใกล้เคียง (page เริ่มที่ 0)
+    @GetMapping("/search")
+    public ResponseEntity<List<TodoResponse>> searchTodos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(todoService.searchTodos(q, page, size));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TodoResponse> getTodo(@PathVariable Long id,
+                                                @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                WebRequest webRequest) {
+        Todo todo = includeArchived ? todoService.getTodoIncludingArchived(id) : todoService.getTodo(id);
+        if (webRequest.checkNotModified(TodoEtags.of(todo, webRequest.getHeader(HttpHeaders.ACCEPT)))) {
+            return null;
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(TodoService.toResponse(todo));
     }
 
     @PostMapping
-    public ResponseEntity<TodoResponse> createTodo(@Valid @RequestBody TodoRequest request) {
+    public ResponseEntity<TodoResponse> createTodo(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                   @Valid @RequestBody TodoRequest request) {
         Todo created =  todoService.createDataTodo(request);
-        TodoResponse todoResponse = new TodoResponse(
-                created.getId(),
-                created.getTitle(),
-                created.isCompleted(),
-                created.getCreatedAt(),
-                created.getUpdatedAt()
-        );
-
-        return ResponseEntity.status(201).body(todoResponse);
+        return ResponseEntity.status(201).eTag(TodoEtags.of(created, accept)).varyBy(HttpHeaders.ACCEPT)
+                .body(TodoService.toResponse(created));
+    }
+
+    // validate ทีละรายการ: รายการที่ไม่ผ่านจะถูก reject พร้อมเหตุผล ส่วนที่ผ่านจะถูก insert ใน transaction เดียว
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResponse> createTodos(@RequestBody List<TodoRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+
+        List<BatchCreateResponse.ItemResult> results = new ArrayList<>(requests.size());
+        List<TodoRequest> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TodoRequest request = requests.get(i);
+            Set<ConstraintViolation<TodoRequest>> violations = request == null ? Set.of() : validator.validate(request);
+            if (request == null || !violations.isEmpty()) {
+                List<ErrorResponse.ValidationError> errors = violations.stream()
+                        .map(v -> new ErrorResponse.ValidationError(v.getPropertyPath().toString(), v.getInvalidValue(), v.getMessage()))
+                        .toList();
+                results.add(new BatchCreateResponse.ItemResult(i, BatchCreateResponse.Status.REJECTED, null, errors));
+            } else {
+                valid.add(request);
+                results.add(null);
+            }
+        }
+
+        Iterator<Todo> created = todoService.createDataTodos(valid).iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                TodoResponse response = TodoService.toResponse(created.next());
+                results.set(i, new BatchCreateResponse.ItemResult(i, BatchCreateResponse.Status.CREATED, response, null));
+            }
+        }
+
+        int rejected = requests.size() - valid.size();
+        BatchCreateResponse body = new BatchCreateResponse(valid.size(), rejected, results);
+        // 201 เมื่อสร้างครบทุกรายการ, 207 เมื่อมีบางรายการถูก reject
+        return ResponseEntity.status(rejected == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(body);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<TodoResponse> updateTodo(@PathVariable Long id, @Valid @RequestBody UpdateTodoRequest request) {
-        Todo updated = todoService.updateTodo(id, request);
-        TodoResponse response = new TodoResponse(updated.getId(), updated.getTitle(), updated.isCompleted(), updated.getCreatedAt(), updated.getUpdatedAt());
-        return ResponseEntity.ok().body(response);
+    public ResponseEntity<TodoResponse> updateTodo(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                   @Valid @RequestBody UpdateTodoRequest request) {
+        Todo updated = todoService.updateTodo(id, request, TodoEtags.expectedVersion(id, ifMatch));
+        return ResponseEntity.ok().eTag(TodoEtags.of(updated, accept)).varyBy(HttpHeaders.ACCEPT)
+                .body(TodoService.toResponse(updated));
+    }
+
+    @PatchMapping("/completion")
+    public ResponseEntity<BulkOperationResponse> updateCompletion(@Valid @RequestBody BulkCompletionRequest request) {
+        int affected = todoService.updateCompletion(request);
+        return ResponseEntity.ok(new BulkOperationResponse(affected));
     }
 
     @DeleteMapping("/{id}")
@@ -64,14 +149,66 @@ public class TodoController {
         return ResponseEntity.noContent().build();
     }
 
+    // DELETE /api/todos?ids=1,2,3 หรือ DELETE /api/todos?completed=true (statement เดียว)
+    @DeleteMapping
+    public ResponseEntity<BulkOperationResponse> deleteTodos(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) Boolean completed) {
+        int affected = todoService.deleteTodos(ids, completed);
+        return ResponseEntity.ok(new BulkOperationResponse(affected));
+    }
+
 
     @GetMapping(value = "/filter", params = "completed")
-    public ResponseEntity<List<TodoResponse>> getTodoByCompleted(@RequestParam boolean completed) {
-        List<TodoResponse> todos = todoService.getTodosByCompletion(completed)
-                .stream()
-                .map(todo -> new TodoResponse(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getCreatedAt(), todo.getUpdatedAt()))
-                .toList();
+    public ResponseEntity<List<TodoResponse>> getTodoByCompleted(
+            @RequestParam boolean completed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest webRequest) {
+        CursorPage<TodoResponse> page = includeArchived
+                ? todoService.getTodosByCompletionIncludingArchived(completed, cursor, limit)
+                : todoService.getTodosByCompletion(completed, cursor, limit);
+        if (webRequest.checkNotModified(TodoEtags.ofPage(page, webRequest.getHeader(HttpHeaders.ACCEPT), completed, cursor, limit, includeArchived))) {
+            return null;
+        }
+        return pageResponse(page);
+    }
+
+    // NDJSON export ทีละแถวจาก database cursor ไม่โหลดทั้งตารางเข้า memory
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                todoExportService.exportTodos(completed, gzipOut);
+                gzipOut.finish();
+            } else {
+                todoExportService.exportTodos(completed, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
 
-        return ResponseEntity.ok().body(todos);
+    // body ยังเป็น array เหมือนเดิม ส่วน cursor หน้าถัดไปส่งทาง header (X-Next-Cursor + Link rel="next")
+    // Vary: Accept เพราะ URL เดียวกันตอบได้ทั้ง JSON, CBOR และ Smile
+    private ResponseEntity<List<TodoResponse>> pageResponse(CursorPage<TodoResponse> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (page.hasNext()) {
+            String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNext())
+                    .build()
+                    .toUriString();
+            builder.header(NEXT_CURSOR_HEADER, page.getNext())
+                    .header(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        }
+        return builder.body(page.getItems());
     }
 }
@@ -0,0 +1,101 @@
+package com.bannakon.zentasks.controller;
+
+import com.bannakon.zentasks.dto.CursorPage;
+import com.bannakon.zentasks.entity.Todo;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Strong ETag ของ todo แต่ละตัว ("<id>-<version>") และของหน้า list ("todos-<collection version>-<query>")
+// CBOR/Smile เป็นคนละ representation กับ JSON (byte ไม่เหมือนกัน) จึงต่อท้ายด้วย "-cbor" / "-smile"
+final class TodoEtags {
+
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // ลำดับเดียวกับ converter: JSON มาก่อน จึงเป็นค่า default ของ */*
+    private static final Map<MediaType, String> FORMATS = Map.of(
+            MediaType.APPLICATION_JSON, "",
+            MediaType.APPLICATION_CBOR, "-cbor",
+            SMILE, "-smile");
+    private static final List<MediaType> FORMAT_ORDER = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private TodoEtags() {
+    }
+
+    static String of(Todo todo, String accept) {
+        return "\"" + todo.getId() + "-" + todo.getVersion() + formatOf(accept) + "\"";
+    }
+
+    // query (cursor, limit, filter, includeArchived) อยู่ใน tag ด้วย: แต่ละหน้าเป็นคนละ representation
+    static String ofPage(CursorPage<?> page, String accept, Object... query) {
+        return "\"todos-" + page.getVersion() + "-" + Integer.toHexString(Arrays.hashCode(query)) + formatOf(accept) + "\"";
+    }
+
+    /**
+     * Suffix for the format content negotiation will pick for this Accept header: the acceptable type with
+     * the highest quality that one of the JSON, CBOR or Smile converters produces. Empty for JSON.
+     */
+    static String formatOf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        // stable sort: ชนิดที่ q เท่ากันคงลำดับตาม header
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType format : FORMAT_ORDER) {
+                if (type.isCompatibleWith(format)) {
+                    return FORMATS.get(format);
+                }
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Returns the version the client expects from an If-Match header, or null when the header is
+     * absent or "*". Weak or foreign tags can never match a strong ETag, so they fail with 412.
+     * The format suffix is ignored: every format of a todo carries the same version.
+     */
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+            throw preconditionFailed(id);
+        }
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        for (String suffix : FORMATS.values()) {
+            if (!suffix.isEmpty() && version.endsWith(suffix)) {
+                version = version.substring(0, version.length() - suffix.length());
+                break;
+            }
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw preconditionFailed(id);
+        }
+    }
+
+    private static ResponseStatusException preconditionFailed(Long id) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match todo " + id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bannakon.zentasks.controller;
+
+import com.bannakon.zentasks.dto.TodoStatsResponse;
+import com.bannakon.zentasks.service.TodoStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RequestMapping("/api/todos/stats")
+@RestController
+@RequiredArgsConstructor
+public class TodoStatsController {
+
+    private final TodoStatsService todoStatsService;
+
+    // ค่าเริ่มต้น: rollup ย้อนหลัง 30 วัน
+    @GetMapping
+    public ResponseEntity<TodoStatsResponse> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(todoStatsService.getStats(start, end));
+    }
+}
@@ -0,0 +1,26 @@
+package com.bannakon.zentasks.controller;
+
+import com.bannakon.zentasks.dto.BulkOperationResponse;
+import com.bannakon.zentasks.service.TodoStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator endpoint for {@link TodoStatsService#rebuild()}. It isn't in the default web exposure list:
+ * add {@code todostats} to {@code management.endpoints.web.exposure.include} only on a management port
+ * that isn't reachable from the public API, then {@code POST /actuator/todostats}.
+ */
+@Component
+@Endpoint(id = "todostats")
+@RequiredArgsConstructor
+public class TodoStatsEndpoint {
+
+    private final TodoStatsService todoStatsService;
+
+    @WriteOperation
+    public BulkOperationResponse rebuild() {
+        return new BulkOperationResponse(todoStatsService.rebuild());
+    }
+}
@@ -0,0 +1,24 @@
+package com.bannakon.zentasks.controller;
+
+import com.bannakon.zentasks.event.TodoEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("/api/todos/stream")
+@RestController
+@RequiredArgsConstructor
+public class TodoStreamController {
+
+    private final TodoEventBroadcaster todoEventBroadcaster;
+
+    // event: created / updated / deleted (data = todos + ids) หรือ reset (ให้ client โหลดรายการใหม่)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return todoEventBroadcaster.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bannakon.zentasks.controller;
+
+import com.bannakon.zentasks.dto.TodoChangesResponse;
+import com.bannakon.zentasks.service.TodoService;
+import com.bannakon.zentasks.service.TodoSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping("/api/todos/changes")
+@RestController
+@RequiredArgsConstructor
+public class TodoSyncController {
+
+    private final TodoSyncService todoSyncService;
+
+    // ไม่ส่ง since = sync ครั้งแรก (ทุกแถว); จากนั้นส่ง syncToken ที่ได้รับล่าสุด
+    @GetMapping
+    public ResponseEntity<TodoChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + TodoService.MAX_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(todoSyncService.getChanges(since, limit));
+    }
+}
@@ -0,0 +1,140 @@
+package com.bannakon.zentasks.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Hands out connections from one of several read replicas, used as the read-only target of the
+ * routing proxy. Unhealthy replicas are skipped; when none is usable (or the current request must
+ * read its own writes) the connection comes from the primary instead.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource {
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+
+    static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        DataSource getDataSource() {
+            return dataSource;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final ToIntFunction<DataSource> activeConnections;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<Replica> replicas, Strategy strategy,
+                             ToIntFunction<DataSource> activeConnections) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.activeConnections = activeConnections;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaRouting.isPrimaryOnly()) {
+            for (Replica replica : candidates()) {
+                try {
+                    Connection connection = replica.getDataSource().getConnection();
+                    ReplicaRouting.recordReplicaRead();
+                    return connection;
+                } catch (SQLException e) {
+                    markUnhealthy(replica, e);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // replica pool ใช้ credentials ที่ตั้งไว้ตอนสร้าง pool: ขอด้วย credentials อื่นจึงให้ primary จัดการเอง
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // เรียกเป็นระยะจาก ReplicaRoutingConfig: replica ที่กลับมาใช้ได้จะถูกใส่คืนเข้ารอบ
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                boolean valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+                if (valid && !replica.healthy) {
+                    log.info("Read replica {} is healthy again", replica.getName());
+                }
+                if (!valid) {
+                    markUnhealthy(replica, null);
+                }
+                replica.healthy = valid;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // replica ที่ healthy เรียงตามลำดับที่ควรลอง (ตัวแรกคือตัวที่ strategy เลือก ที่เหลือเป็นตัวสำรอง)
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isHealthy()) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.size() < 2) {
+            return healthy;
+        }
+        if (strategy == Strategy.LEAST_CONNECTIONS) {
+            healthy.sort(Comparator.comparingInt(replica -> activeConnections.applyAsInt(replica.getDataSource())));
+        } else {
+            int start = Math.floorMod(next.getAndIncrement(), healthy.size());
+            List<Replica> rotated = new ArrayList<>(healthy.subList(start, healthy.size()));
+            rotated.addAll(healthy.subList(0, start));
+            healthy = rotated;
+        }
+        return healthy;
+    }
+
+    private void markUnhealthy(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            log.warn("Read replica {} is unhealthy, reads fall back to other replicas or the primary: {}",
+                    replica.getName(), cause != null ? cause.getMessage() : "connection validation failed");
+        }
+        replica.healthy = false;
+    }
+}
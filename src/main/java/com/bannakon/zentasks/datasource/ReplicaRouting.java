@@ -0,0 +1,54 @@
+package com.bannakon.zentasks.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary (read-your-writes).
+ * Set by {@link ReadYourWritesFilter} for the duration of a request.
+ * <p>
+ * Also counts the replica connections handed out on this thread, so callers can tell whether a value
+ * they just loaded may lag behind the primary (the todo cache does not keep such values).
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Long> REPLICA_READS = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static void usePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+
+    public static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    // สำหรับงานที่ทนข้อมูลตามหลัง primary ไม่ได้ไม่ว่า request จะเป็นแบบไหน (คืนสถานะเดิมของ thread เมื่อจบ)
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (isPrimaryOnly()) {
+            return work.get();
+        }
+        usePrimary();
+        try {
+            return work.get();
+        } finally {
+            clear();
+        }
+    }
+
+    // เพิ่มขึ้นอย่างเดียว: เทียบค่าก่อนและหลังโหลดเพื่อรู้ว่าระหว่างนั้นมีการอ่านจาก replica หรือไม่
+    public static long replicaReads() {
+        Long reads = REPLICA_READS.get();
+        return reads == null ? 0 : reads;
+    }
+
+    static void recordReplicaRead() {
+        REPLICA_READS.set(replicaReads() + 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bannakon.zentasks.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, active when {@code zentasks.replicas.urls} is set.
+ * <p>
+ * The single {@code DataSource} bean is a {@link LazyConnectionDataSourceProxy} over the primary pool.
+ * It only fetches a physical connection once the transaction's read-only flag is known, and then
+ * takes read-only transactions ({@code @Transactional(readOnly = true)}, Spring Data query methods)
+ * from {@link ReplicaDataSource}. Every write transaction and everything outside a read-only
+ * transaction stays on the primary. Replica pools aren't beans, so JPA, SQL init and the SQL
+ * diagnostics proxy still see exactly one DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "zentasks.replicas.urls")
+public class ReplicaRoutingConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaDataSource replicaDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${zentasks.replicas.urls}") List<String> replicaUrls,
+                                 @Value("${zentasks.replicas.username:${spring.datasource.username:}}") String username,
+                                 @Value("${zentasks.replicas.password:${spring.datasource.password:}}") String password,
+                                 @Value("${zentasks.replicas.strategy:ROUND_ROBIN}") ReplicaDataSource.Strategy strategy,
+                                 @Value("${zentasks.replicas.connection-timeout-ms:1000}") long connectionTimeoutMs) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        pools.add(primary);
+
+        List<ReplicaDataSource.Replica> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(primary.getMaximumPoolSize());
+            // สั้นกว่า primary มาก: replica ที่ล่มต้อง fail เร็วแล้ว fallback ไป replica อื่นหรือ primary
+            // ไม่ใช่ให้ read ค้าง 30 s (timeout ของ primary) ก่อนถูก mark unhealthy
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setReadOnly(true);
+            // ไม่ใช่ bean จึงไม่ถูก bind metrics อัตโนมัติเหมือน primary
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null) {
+                replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            pools.add(replica);
+            replicas.add(new ReplicaDataSource.Replica(replica.getPoolName(), replica));
+        }
+
+        replicaDataSource = new ReplicaDataSource(primary, replicas, strategy,
+                dataSource -> ((HikariDataSource) dataSource).getHikariPoolMXBean() == null
+                        ? 0
+                        : ((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections());
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+
+    @Scheduled(fixedDelayString = "${zentasks.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (replicaDataSource != null) {
+            replicaDataSource.checkHealth();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
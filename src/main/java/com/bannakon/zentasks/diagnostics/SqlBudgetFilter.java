@@ -0,0 +1,61 @@
+package com.bannakon.zentasks.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the JDBC statements each request runs and flags requests above {@code zentasks.sql.budget}
+ * (log line on {@code zentasks.sql.budget} plus the {@code zentasks.sql.budget.exceeded} counter,
+ * tagged with the handler's URI pattern).
+ */
+@Slf4j(topic = "zentasks.sql.budget")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final int budget;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlBudgetFilter(@Value("${zentasks.sql.budget:5}") int budget, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.budget = budget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestStats.end();
+            if (stats.getStatements() > budget) {
+                reportOverBudget(request, stats);
+            }
+        }
+    }
+
+    private void reportOverBudget(HttpServletRequest request, SqlRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        log.warn("{} {} ran {} SQL statements (budget {}), {} ms in JDBC",
+                request.getMethod(), uri, stats.getStatements(), budget, stats.getMillis());
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter("zentasks.sql.budget.exceeded", "method", request.getMethod(), "uri", uri).increment();
+        }
+    }
+}
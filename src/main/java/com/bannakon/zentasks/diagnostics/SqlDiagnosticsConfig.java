@@ -0,0 +1,39 @@
+package com.bannakon.zentasks.diagnostics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a datasource-proxy that feeds {@link SqlStatementListener}.
+ * The proxy unwraps to the underlying pool, so Hikari metrics and health checks keep working.
+ * Replaces show-sql / DEBUG statement logging: only per-request counts, budget violations and
+ * sampled slow queries are reported.
+ */
+@Configuration
+public class SqlDiagnosticsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlDiagnosticsDataSourceWrapper(Environment environment) {
+        Duration slowThreshold = environment.getProperty("zentasks.sql.slow-threshold", Duration.class, Duration.ofMillis(200));
+        double sampleRate = environment.getProperty("zentasks.sql.slow-sample-rate", Double.class, 0.1);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementListener(slowThreshold, sampleRate))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.bannakon.zentasks.diagnostics;
+
+/**
+ * JDBC statements executed and time spent in them on the current request thread.
+ * Started and cleared by {@link SqlBudgetFilter}; statements on other threads (async export) are not counted.
+ */
+final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private long statementStart;
+
+    static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void statementFinished() {
+        statements++;
+        nanos += System.nanoTime() - statementStart;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getMillis() {
+        return nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bannakon.zentasks.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// นับ statement ให้ request ปัจจุบัน และสุ่ม log query ที่ช้ากว่า threshold พร้อม bind parameters
+@Slf4j(topic = "zentasks.sql.slow")
+class SqlStatementListener implements QueryExecutionListener {
+
+    // batch insert มีได้ถึง 50 ชุด parameter: log แค่ไม่กี่ชุดแรกก็พอ
+    private static final int LOGGED_PARAMETER_SETS = 3;
+
+    private final long slowThresholdMillis;
+    private final double sampleRate;
+
+    SqlStatementListener(Duration slowThreshold, double sampleRate) {
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.statementFinished();
+        }
+        if (execInfo.getElapsedTime() >= slowThresholdMillis && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow SQL ({} ms{}): {} params={}",
+                        execInfo.getElapsedTime(),
+                        execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                        queryInfo.getQuery(),
+                        formatParameters(queryInfo));
+            }
+        }
+    }
+
+    private static String formatParameters(QueryInfo queryInfo) {
+        return queryInfo.getParametersList().stream()
+                .limit(LOGGED_PARAMETER_SETS)
+                .map(SqlStatementListener::formatParameterSet)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String formatParameterSet(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .map(operation -> {
+                    Object[] args = operation.getArgs();
+                    return args.length > 1 ? args[0] + "=" + args[1] : String.valueOf(args[0]);
+                })
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
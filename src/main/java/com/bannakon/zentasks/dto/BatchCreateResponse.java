@@ -0,0 +1,35 @@
+package com.bannakon.zentasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateResponse {
+    private int created;
+    private int rejected;
+    private List<ItemResult> results;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    // ผลลัพธ์ต่อ 1 รายการ ตามลำดับเดียวกับ request (index เริ่มที่ 0)
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private Status status;
+        private TodoResponse todo;
+        private List<ErrorResponse.ValidationError> validationErrors;
+    }
+}
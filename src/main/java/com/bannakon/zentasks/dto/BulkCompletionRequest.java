@@ -0,0 +1,22 @@
+package com.bannakon.zentasks.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ระบุอย่างใดอย่างหนึ่ง: ids หรือ createdBefore
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCompletionRequest {
+    @Size(min = 1, max = 10_000, message = "ids must contain between {min} and {max} items")
+    private List<Long> ids;
+
+    private LocalDateTime createdBefore;
+
+    private boolean completed = true;
+}
@@ -0,0 +1,14 @@
+package com.bannakon.zentasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+    private int affected;
+}
@@ -0,0 +1,26 @@
+package com.bannakon.zentasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+// หน้าผลลัพธ์แบบ keyset: items ของหน้านี้ + cursor ไปหน้าถัดไป (null = หน้าสุดท้าย)
+// version = สถานะ collection ที่อ่านใน transaction เดียวกับ items (ใช้ทำ ETag และถูก cache ไปพร้อมกัน)
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String next;
+    private final String version;
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, next, version);
+    }
+}
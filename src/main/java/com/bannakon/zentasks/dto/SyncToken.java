@@ -0,0 +1,43 @@
+package com.bannakon.zentasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a delta-sync client: the last changed row it has seen, keyed on (updatedAt, id),
+ * and the last tombstone, keyed on (deletedAt, todoId). Opaque base64url like {@link TodoCursor}.
+ */
+@Getter
+@AllArgsConstructor
+public class SyncToken {
+    private final LocalDateTime changedAt;
+    private final Long changedId;
+    private final LocalDateTime deletedAt;
+    private final Long deletedId;
+
+    public String encode() {
+        String raw = changedAt + "|" + changedId + "|" + deletedAt + "|" + deletedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Expected 4 fields");
+            }
+            return new SyncToken(
+                    LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3])
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.bannakon.zentasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// ผลของ delta sync: upsert รายการใน changed, ลบ id ใน deleted แล้วส่ง syncToken กลับมาในครั้งถัดไป
+@Getter
+@AllArgsConstructor
+public class TodoChangesResponse {
+    private final List<TodoResponse> changed;
+    private final List<Long> deleted;
+    private final String syncToken;
+    // true = ยังมีการเปลี่ยนแปลงเหลือ ให้เรียกต่อทันทีด้วย syncToken ใหม่
+    private final boolean hasMore;
+}
@@ -1,10 +1,12 @@
 package com.bannakon.zentasks.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class TodoResponse {
     private Long id;
     private String title;
@@ -0,0 +1,32 @@
+package com.bannakon.zentasks.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStatsResponse {
+    private long open;
+    private long completed;
+    private long total;
+    private List<DailyRollup> daily;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyRollup {
+        private LocalDate date;
+        private long created;
+        private long completed;
+        private long reopened;
+        private long deleted;
+    }
+}
@@ -0,0 +1,41 @@
+package com.bannakon.zentasks.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a completed todo moved out of {@code todos} by {@code TodoArchiver}. Same id and columns as
+ * {@link Todo}, read-only: reads include these rows only when asked ({@code includeArchived=true}).
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "todos_archive", indexes = {
+        // keyset pagination เดียวกับ todos เพื่อ merge สองตารางตามลำดับ (createdAt, id)
+        @Index(name = "idx_todos_archive_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_todos_archive_completed_created_at_id", columnList = "completed, createdAt, id")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTodo {
+
+    @Id
+    private Long id;
+    private String title;
+    private boolean completed;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private long version;
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public Todo toTodo() {
+        return new Todo(id, title, completed, createdAt, updatedAt, version);
+    }
+}
@@ -5,25 +5,46 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Setter
 @Getter
 @Entity // Marks this class as a JPA entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        // รองรับ keyset pagination ทั้งแบบทั้งหมดและแบบกรองตาม completed
+        @Index(name = "idx_todos_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_todos_completed_created_at_id", columnList = "completed, createdAt, id"),
+        // delta sync (GET /api/todos/changes) อ่านตามลำดับ (updatedAt, id)
+        @Index(name = "idx_todos_updated_at_id", columnList = "updatedAt, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Todo {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id // Marks 'id' as the primary key
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment ID
+    // Pooled sequence (แทน IDENTITY) เพื่อให้ Hibernate จอง id ล่วงหน้าทีละ 50 และทำ JDBC batch insert ได้
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String title;
     private boolean completed;
+    @Column(nullable = false)
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Optimistic locking + ETag ของแต่ละ todo (default 0 ให้แถวเดิมตอน ddl-auto=update เพิ่ม column)
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
+    public Todo(Long id, String title, boolean completed, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, completed, createdAt, updatedAt, 0L);
+    }
+
     @Override
     public String toString() {
         return "Todo{" +
@@ -32,6 +53,7 @@ public class Todo {
                 ", completed=" + completed +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
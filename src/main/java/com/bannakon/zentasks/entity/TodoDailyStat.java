@@ -0,0 +1,54 @@
+package com.bannakon.zentasks.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Per-day rollup maintained incrementally by {@code TodoStatsService} on every write.
+ * The running open/completed totals are the sums of the delta columns across all days,
+ * so the summary never has to scan {@code todos}.
+ * <p>
+ * Each day is split into {@code TodoStatsService.STRIPES} rows so concurrent write transactions lock
+ * different rows instead of queueing on one; reads sum the stripes.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "todo_daily_stats")
+@IdClass(TodoDailyStat.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoDailyStat {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate statDate;
+        private int stripe;
+    }
+
+    @Id
+    private LocalDate statDate;
+    // แถวเดิมก่อนแบ่ง stripe ได้ stripe 0 (primary key เปลี่ยนโดย SchemaUpgrade)
+    @Id
+    @ColumnDefault("0")
+    private int stripe;
+    private long createdCount;
+    private long completedCount; // todo ที่ถูกทำเครื่องหมายว่าเสร็จในวันนี้ (รวมที่สร้างมาแบบ completed)
+    private long reopenedCount;
+    private long deletedCount;
+    private long openDelta;
+    private long completedDelta;
+    // จำนวนการเขียนทั้งหมด (รวมแก้ title) ใช้เป็น collection ETag ของ GET /api/todos
+    @ColumnDefault("0")
+    private long changeCount;
+}
@@ -0,0 +1,31 @@
+package com.bannakon.zentasks.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a delete so {@code GET /api/todos/changes} can tell offline clients which
+ * ids are gone. Written in the same statement as the delete; purged after
+ * {@code zentasks.sync.tombstone-retention}.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "todo_tombstones", indexes = {
+        @Index(name = "idx_todo_tombstones_deleted_at_todo_id", columnList = "deletedAt, todoId")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoTombstone {
+
+    // id ของ todo มาจาก sequence ไม่มีการนำกลับมาใช้ซ้ำ จึงใช้เป็น primary key ได้เลย
+    @Id
+    private Long todoId;
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
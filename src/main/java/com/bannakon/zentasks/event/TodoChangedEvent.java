@@ -0,0 +1,57 @@
+package com.bannakon.zentasks.event;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@code TodoService} for every write. Listeners that must only see committed data
+ * use {@code @TransactionalEventListener} (AFTER_COMMIT).
+ * <p>
+ * {@code todos} carries the new state when the service has it (single create/update, batch create);
+ * set-based bulk operations only know the affected {@code ids}, and filter-based ones not even that
+ * ({@code wholeCollection} is then true and listeners must treat any row as possibly changed).
+ */
+@Getter
+@AllArgsConstructor
+public class TodoChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // ย้ายไป todos_archive: หายจาก list ปกติ แต่ยังอ่านได้ด้วย includeArchived=true
+        ARCHIVED
+    }
+
+    private final Type type;
+    private final List<TodoResponse> todos;
+    private final List<Long> ids;
+    private final boolean wholeCollection;
+
+    public static TodoChangedEvent created(List<TodoResponse> todos) {
+        return new TodoChangedEvent(Type.CREATED, todos, todos.stream().map(TodoResponse::getId).toList(), false);
+    }
+
+    public static TodoChangedEvent updated(TodoResponse todo) {
+        return new TodoChangedEvent(Type.UPDATED, List.of(todo), List.of(todo.getId()), false);
+    }
+
+    public static TodoChangedEvent updated(List<Long> ids) {
+        return new TodoChangedEvent(Type.UPDATED, List.of(), ids, false);
+    }
+
+    public static TodoChangedEvent deleted(List<Long> ids) {
+        return new TodoChangedEvent(Type.DELETED, List.of(), ids, false);
+    }
+
+    public static TodoChangedEvent archived(List<Long> ids) {
+        return new TodoChangedEvent(Type.ARCHIVED, List.of(), ids, false);
+    }
+
+    public static TodoChangedEvent bulk(Type type) {
+        return new TodoChangedEvent(type, List.of(), List.of(), true);
+    }
+}
@@ -0,0 +1,256 @@
+package com.bannakon.zentasks.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out of committed todo changes to SSE subscribers.
+ * <p>
+ * Idle subscribers hold no thread: Tomcat parks the async request and the subscriber is just a queue.
+ * Publishing only appends to each subscriber's bounded queue; a virtual thread per <em>busy</em> subscriber
+ * drains it, so a slow client blocks its own writes and nobody else's. Queues hold immutable events; the
+ * (mutable, single-use) {@link SseEmitter.SseEventBuilder} is created by the drain thread for each send.
+ * When a queue overflows, the
+ * {@code zentasks.stream.overflow} policy applies: {@code DROP} discards that subscriber's backlog and sends
+ * a single {@code reset}, {@code DISCONNECT} closes the stream (the client reconnects with Last-Event-ID).
+ * The last {@code zentasks.stream.replay-size} events are kept in a ring buffer for those reconnects.
+ * <p>
+ * Event ids are {@code <epoch>-<sequence>}. The epoch is random per instance and boot, so a Last-Event-ID
+ * from before a restart or from another instance never lines up with this sequence; it gets a {@code reset}.
+ */
+@Slf4j
+@Component
+public class TodoEventBroadcaster {
+
+    public enum OverflowPolicy {
+        DROP,
+        DISCONNECT
+    }
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(3);
+    private static final Supplier<SseEmitter.SseEventBuilder> PING = () -> SseEmitter.event().comment("ping");
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final TodoStreamEvent[] recent;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration timeout;
+    private final ExecutorService drainExecutor;
+    private final Counter overflows;
+    private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+    private long sequence;
+
+    @Autowired
+    public TodoEventBroadcaster(@Value("${zentasks.stream.buffer-size:256}") int bufferSize,
+                                @Value("${zentasks.stream.replay-size:10000}") int replaySize,
+                                @Value("${zentasks.stream.max-subscribers:10000}") int maxSubscribers,
+                                @Value("${zentasks.stream.overflow:DROP}") OverflowPolicy overflowPolicy,
+                                @Value("${zentasks.stream.timeout:30m}") Duration timeout,
+                                MeterRegistry meterRegistry) {
+        this(bufferSize, replaySize, maxSubscribers, overflowPolicy, timeout, meterRegistry,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TodoEventBroadcaster(int bufferSize, int replaySize, int maxSubscribers, OverflowPolicy overflowPolicy,
+                         Duration timeout, MeterRegistry meterRegistry, ExecutorService drainExecutor) {
+        this.bufferSize = bufferSize;
+        this.recent = new TodoStreamEvent[replaySize];
+        this.maxSubscribers = maxSubscribers;
+        this.overflowPolicy = overflowPolicy;
+        this.timeout = timeout;
+        this.drainExecutor = drainExecutor;
+        this.overflows = Counter.builder("zentasks.stream.overflows")
+                .description("Subscriber queues that overflowed")
+                .tag("policy", overflowPolicy.name())
+                .register(meterRegistry);
+        Gauge.builder("zentasks.stream.subscribers", subscribers, Set::size)
+                .description("Connected SSE subscribers")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many stream subscribers, retry later");
+        }
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        subscriber.offer(() -> SseEmitter.event().reconnectTime(RECONNECT_DELAY.toMillis()).comment("connected"));
+        // replay + ลงทะเบียนภายใต้ lock เดียวกับ publish: ไม่มี event ตกหล่นหรือซ้ำระหว่างสองขั้นตอน
+        synchronized (this) {
+            for (TodoStreamEvent event : replayAfter(lastEventId)) {
+                subscriber.offer(() -> toSse(event));
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onTodoChanged(TodoChangedEvent change) {
+        synchronized (this) {
+            TodoStreamEvent event = TodoStreamEvent.of(++sequence, change);
+            recent[(int) (event.getId() % recent.length)] = event;
+            // builder แชร์ข้าม thread ไม่ได้ (build() แก้ state ภายใน): ส่งตัวสร้างไปแทน
+            Supplier<SseEmitter.SseEventBuilder> sse = () -> toSse(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(sse);
+            }
+        }
+    }
+
+    // comment ทุก 15 วินาที กัน proxy ตัด connection ที่เงียบ และตรวจเจอ client ที่หายไปแล้ว
+    @Scheduled(fixedRateString = "${zentasks.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offerIfRoom(PING);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        drainExecutor.shutdownNow();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    synchronized List<TodoStreamEvent> replayAfter(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        String id = lastEventId.trim();
+        String prefix = epoch + "-";
+        if (!id.startsWith(prefix)) {
+            // id จากก่อน restart, จาก instance อื่น หรือรูปแบบเก่า: sequence ของที่นี่ไม่เกี่ยวกับมัน
+            return List.of(TodoStreamEvent.reset(sequence));
+        }
+        long last;
+        try {
+            last = Long.parseLong(id.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return List.of(TodoStreamEvent.reset(sequence));
+        }
+        long oldest = Math.max(1, sequence - recent.length + 1);
+        if (last > sequence || last < oldest - 1) {
+            // เก่ากว่าที่ ring buffer เก็บไว้: ส่งต่อจากจุดนั้นไม่ได้
+            return List.of(TodoStreamEvent.reset(sequence));
+        }
+        List<TodoStreamEvent> missed = new ArrayList<>((int) (sequence - last));
+        for (long id = last + 1; id <= sequence; id++) {
+            missed.add(recent[(int) (id % recent.length)]);
+        }
+        return missed;
+    }
+
+    private SseEmitter.SseEventBuilder toSse(TodoStreamEvent event) {
+        return SseEmitter.event()
+                .id(eventId(event.getId()))
+                .name(event.getType())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (!queue.offer(event)) {
+                overflows.increment();
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+                queue.clear();
+                TodoStreamEvent reset = TodoStreamEvent.reset(sequence);
+                queue.offer(() -> toSse(reset));
+            }
+            scheduleDrain();
+        }
+
+        void offerIfRoom(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (queue.offer(event)) {
+                scheduleDrain();
+            }
+        }
+
+        Queue<Supplier<SseEmitter.SseEventBuilder>> getQueue() {
+            return queue;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                drainExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | RuntimeException e) {
+                        // IOException/IllegalStateException: client ปิด connection ไปแล้ว
+                        // อย่างอื่น (เช่น serialize ไม่ได้): ปิด stream ให้ client reconnect แทนที่จะเงียบไปเฉยๆ
+                        if (!(e instanceof IOException || e instanceof IllegalStateException)) {
+                            log.warn("Closing SSE subscriber after a failed send", e);
+                        }
+                        subscribers.remove(this);
+                        queue.clear();
+                        draining.set(false);
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bannakon.zentasks.event;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One entry of the SSE change feed: a committed {@link TodoChangedEvent} numbered with the
+ * feed's sequence. The SSE id is {@code <epoch>-<id>}, which clients echo back as {@code Last-Event-ID}
+ * when they reconnect.
+ * {@code reset} tells the client its view can't be patched (bulk change, or events it missed
+ * are gone) and it should re-read the list.
+ */
+@Getter
+@AllArgsConstructor
+public class TodoStreamEvent {
+
+    public static final String RESET = "reset";
+
+    private final long id;
+    private final String type;
+    private final List<TodoResponse> todos;
+    private final List<Long> ids;
+
+    static TodoStreamEvent of(long id, TodoChangedEvent event) {
+        if (event.isWholeCollection()) {
+            return reset(id);
+        }
+        return new TodoStreamEvent(id, event.getType().name().toLowerCase(), event.getTodos(), event.getIds());
+    }
+
+    static TodoStreamEvent reset(long id) {
+        return new TodoStreamEvent(id, RESET, List.of(), List.of());
+    }
+}
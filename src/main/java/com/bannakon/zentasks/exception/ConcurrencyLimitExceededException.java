@@ -0,0 +1,17 @@
+package com.bannakon.zentasks.exception;
+
+import lombok.Getter;
+
+// request เกิน concurrency limit: ตอบ 503 + Retry-After ทันทีโดยไม่แตะ database
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String limiter;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(String limiter, long retryAfterSeconds) {
+        super("Too many concurrent " + limiter + " requests");
+        this.limiter = limiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -3,6 +3,9 @@ package com.bannakon.zentasks.exception;
 import com.bannakon.zentasks.dto.ErrorResponse;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -60,6 +63,56 @@ public class GlobalExceptionHandler {
     }
 
 
+    // มีคนแก้ todo เดียวกันระหว่างที่เรากำลัง update (version ใน database เปลี่ยนไปแล้ว)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLock(
+            ObjectOptimisticLockingFailureException ex, HttpServletRequest request) {
+
+        ErrorResponse errorResponse = createErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "The todo was modified concurrently, reload it and retry",
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+
+    // ได้ connection จาก pool ไม่ทันตาม connection-timeout: database ช้า/pool เต็ม ให้ client ลองใหม่แทน 500
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(
+            CannotCreateTransactionException ex, HttpServletRequest request) {
+
+        ErrorResponse errorResponse = createErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Database is busy, please retry",
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+
+    // เกิน concurrency limit: บอก client ว่าควรรอกี่วินาทีก่อนลองใหม่
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceeded(
+            ConcurrencyLimitExceededException ex, HttpServletRequest request) {
+
+        ErrorResponse errorResponse = createErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Server is overloaded, please retry",
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex, HttpServletRequest request) {
@@ -0,0 +1,134 @@
+package com.bannakon.zentasks.json;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes {@code List<TodoResponse>} JSON bodies (GET /api/todos, /filter, /search) by splicing cached,
+ * already-serialized todos between {@code [}, {@code ,} and {@code ]}. Only todos that changed since they
+ * were last written go through Jackson, so a client polling an unchanged page costs no object mapping.
+ * <p>
+ * Fragments come from Boot's ObjectMapper, so the body is byte-for-byte what the Jackson converter writes.
+ * A fragment is used only while the todo's {@code updatedAt} and {@code completed} still match (every write
+ * bumps {@code updatedAt}); committed {@link TodoChangedEvent}s also drop fragments of changed and deleted
+ * todos so they don't linger in memory. Registered ahead of the Jackson converter; read path is untouched.
+ * Set {@code zentasks.json-fragments.enabled=false} to fall back to plain Jackson.
+ */
+@Component
+@ConditionalOnProperty(name = "zentasks.json-fragments.enabled", havingValue = "true", matchIfMissing = true)
+public class TodoListJsonConverter extends AbstractGenericHttpMessageConverter<List<TodoResponse>>
+        implements MeterBinder {
+
+    private record Fragment(LocalDateTime updatedAt, boolean completed, byte[] json) {
+    }
+
+    private final ObjectWriter todoWriter;
+    private final Cache<Long, Fragment> fragments;
+
+    public TodoListJsonConverter(ObjectMapper objectMapper,
+                                 @Value("${zentasks.json-fragments.max-size:100000}") long maxSize) {
+        super(MediaType.APPLICATION_JSON);
+        this.todoWriter = objectMapper.writerFor(TodoResponse.class);
+        this.fragments = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == List.class
+                && parameterized.getActualTypeArguments()[0] == TodoResponse.class
+                && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // ตัดสินจาก generic type ใน canWrite(Type, ...) เท่านั้น: List ดิบไม่รู้ว่าเป็น TodoResponse
+        return false;
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    protected void writeInternal(List<TodoResponse> todos, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        OutputStream body = outputMessage.getBody();
+        body.write('[');
+        for (int i = 0; i < todos.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+            body.write(fragmentOf(todos.get(i)));
+        }
+        body.write(']');
+    }
+
+    @Override
+    protected List<TodoResponse> readInternal(Class<? extends List<TodoResponse>> clazz,
+                                              HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    @Override
+    public List<TodoResponse> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Write-only converter", inputMessage);
+    }
+
+    @TransactionalEventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (event.isWholeCollection()) {
+            fragments.invalidateAll();
+        } else {
+            fragments.invalidateAll(event.getIds());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, fragments, "todoJsonFragments");
+    }
+
+    byte[] fragmentOf(TodoResponse todo) throws IOException {
+        Fragment cached = todo.getId() == null ? null : fragments.getIfPresent(todo.getId());
+        if (cached != null && cached.completed() == todo.isCompleted()
+                && Objects.equals(cached.updatedAt(), todo.getUpdatedAt())) {
+            return cached.json();
+        }
+        byte[] json = todoWriter.writeValueAsBytes(todo);
+        if (todo.getId() != null) {
+            fragments.put(todo.getId(), new Fragment(todo.getUpdatedAt(), todo.isCompleted(), json));
+        }
+        return json;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bannakon.zentasks.limiter;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency (additive increase, multiplicative decrease).
+ * <p>
+ * A request that finishes within {@code latencyThreshold} while the limit was at least half used raises the
+ * limit by one; a slower or failed (5xx) request multiplies it by {@code backoffRatio}. When the database
+ * slows down, the limit drops towards what it can actually serve and the rest is rejected immediately
+ * instead of queueing for a pool connection. Once latency recovers the limit climbs back.
+ */
+public class AimdLimiter {
+
+    @Getter
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+
+    public AimdLimiter(String name, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                       Duration latencyThreshold) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max for limiter " + name);
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int inflightBefore = inflight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inflightBefore * 2 >= limit) {
+                // เพิ่มเฉพาะตอนที่ใช้ limit อยู่จริง ไม่อย่างนั้น limit จะโตไปถึง max ตอน traffic น้อย
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
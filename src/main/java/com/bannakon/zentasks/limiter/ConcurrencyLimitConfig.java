@@ -0,0 +1,21 @@
+package com.bannakon.zentasks.limiter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    // stream/export เปิด connection ค้างไว้นาน (async) ไม่ได้ถือ permit ระหว่างส่งข้อมูล จึงไม่นับรวม
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/api/todos", "/api/todos/**")
+                .excludePathPatterns("/api/todos/stream", "/api/todos/export");
+    }
+}
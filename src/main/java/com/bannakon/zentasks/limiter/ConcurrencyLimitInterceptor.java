@@ -0,0 +1,106 @@
+package com.bannakon.zentasks.limiter;
+
+import com.bannakon.zentasks.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load on the todo API with separate {@link AimdLimiter}s for reads (GET/HEAD) and writes, so a burst of
+ * slow writes can't starve reads and vice versa. A request over the limit fails fast with 503 + Retry-After
+ * ({@link ConcurrencyLimitExceededException}, rendered by GlobalExceptionHandler) before touching the pool.
+ * Registered for /api/todos/** by {@link ConcurrencyLimitConfig}; long-lived streams are excluded there.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor, MeterBinder {
+
+    private static final String STARTED = ConcurrencyLimitInterceptor.class.getName() + ".started";
+    private static final String LIMITER = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final AimdLimiter reads;
+    private final AimdLimiter writes;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(
+            @Value("${zentasks.concurrency.enabled:true}") boolean enabled,
+            @Value("${zentasks.concurrency.retry-after:1s}") Duration retryAfter,
+            @Value("${zentasks.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${zentasks.concurrency.read.initial-limit:20}") int readInitial,
+            @Value("${zentasks.concurrency.read.min-limit:4}") int readMin,
+            @Value("${zentasks.concurrency.read.max-limit:200}") int readMax,
+            @Value("${zentasks.concurrency.read.latency-threshold:250ms}") Duration readThreshold,
+            @Value("${zentasks.concurrency.write.initial-limit:10}") int writeInitial,
+            @Value("${zentasks.concurrency.write.min-limit:2}") int writeMin,
+            @Value("${zentasks.concurrency.write.max-limit:100}") int writeMax,
+            @Value("${zentasks.concurrency.write.latency-threshold:500ms}") Duration writeThreshold) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.reads = new AimdLimiter("read", readInitial, readMin, readMax, backoffRatio, readThreshold);
+        this.writes = new AimdLimiter("write", writeInitial, writeMin, writeMax, backoffRatio, writeThreshold);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        AimdLimiter limiter = limiterFor(request);
+        if (!limiter.tryAcquire()) {
+            Counter rejected = rejections.get(limiter.getName());
+            if (rejected != null) {
+                rejected.increment();
+            }
+            throw new ConcurrencyLimitExceededException(limiter.getName(), retryAfterSeconds);
+        }
+        request.setAttribute(LIMITER, limiter);
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(LIMITER) instanceof AimdLimiter limiter
+                && request.getAttribute(STARTED) instanceof Long started) {
+            // 5xx (เช่น 503 จาก pool timeout) ถือเป็นสัญญาณว่า backend รับไม่ไหว เหมือน latency เกิน threshold
+            limiter.release(System.nanoTime() - started, ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AimdLimiter limiter : List.of(reads, writes)) {
+            Gauge.builder("zentasks.concurrency.limit", limiter, AimdLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("type", limiter.getName())
+                    .register(registry);
+            Gauge.builder("zentasks.concurrency.inflight", limiter, AimdLimiter::getInflight)
+                    .description("Requests currently holding a concurrency permit")
+                    .tag("type", limiter.getName())
+                    .register(registry);
+            rejections.put(limiter.getName(), Counter.builder("zentasks.concurrency.rejected")
+                    .description("Requests rejected with 503 by the concurrency limiter")
+                    .tag("type", limiter.getName())
+                    .register(registry));
+        }
+    }
+
+    AimdLimiter limiterFor(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? reads : writes;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bannakon.zentasks.repository;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.entity.ArchivedTodo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedTodoRepository extends JpaRepository<ArchivedTodo, Long> {
+
+    // Same keyset queries as TodoRepository, so TodoService can merge both tables page by page.
+    String RESPONSE_PROJECTION = "select new com.bannakon.zentasks.dto.TodoResponse(" +
+            "a.id, a.title, a.completed, a.createdAt, a.updatedAt) from ArchivedTodo a ";
+
+    @Query(RESPONSE_PROJECTION + "order by a.createdAt asc, a.id asc")
+    List<TodoResponse> findFirstPage(Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION +
+            "where a.createdAt >= :createdAt and (a.createdAt > :createdAt or a.id > :id) " +
+            "order by a.createdAt asc, a.id asc")
+    List<TodoResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "where a.completed = :completed order by a.createdAt asc, a.id asc")
+    List<TodoResponse> findFirstPageByCompleted(@Param("completed") boolean completed, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION +
+            "where a.completed = :completed " +
+            "and a.createdAt >= :createdAt and (a.createdAt > :createdAt or a.id > :id) " +
+            "order by a.createdAt asc, a.id asc")
+    List<TodoResponse> findPageByCompletedAfter(@Param("completed") boolean completed,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    // ย้ายหนึ่ง batch ใน statement เดียว: delete จาก todos + insert ลง archive + tombstone สำหรับ delta sync
+    // commit พร้อมกันหรือไม่เกิดเลย (crash กลาง job แล้วรันใหม่ต่อได้ทันที) และ SKIP LOCKED
+    // ไม่รอแถวที่ request อื่นกำลังแก้ lock จึงค้างอยู่แค่ batch เดียวสั้นๆ
+    // excluded: id ที่มี toggle ค้างใน write-behind (ห้ามว่าง: "not in ()" ใช้ไม่ได้ ให้ส่ง id ที่ไม่มีจริงแทน)
+    @Query(value = "with moved as (" +
+            "  delete from todos where id in (" +
+            "    select id from todos where completed = true and updated_at < :completedBefore " +
+            "    and id not in (:excluded) " +
+            "    order by updated_at, id limit :batchSize for update skip locked) " +
+            "  returning id, title, completed, created_at, updated_at, version), " +
+            "archived as (insert into todos_archive (id, title, completed, created_at, updated_at, version, archived_at) " +
+            "  select id, title, completed, created_at, updated_at, version, :archivedAt from moved), " +
+            "tombstones as (insert into todo_tombstones (todo_id, deleted_at) select id, :archivedAt from moved) " +
+            "select id from moved", nativeQuery = true)
+    List<Long> archiveCompletedBefore(@Param("completedBefore") LocalDateTime completedBefore,
+                                      @Param("batchSize") int batchSize,
+                                      @Param("excluded") Collection<Long> excluded,
+                                      @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,49 @@
+package com.bannakon.zentasks.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Same results as {@link ReturningTodoDeleter} with plain JPQL, for databases without writable CTEs
+ * (H2): select the rows, write their tombstones, then delete exactly those ids. Three statements instead
+ * of one, and a concurrent delete of the same rows between them can be counted twice in the statistics;
+ * fine for tests and benchmarks, not meant for production.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "zentasks.delete.strategy", havingValue = "portable")
+public class PortableTodoDeleter implements TodoDeleter {
+
+    private final TodoRepository todoRepository;
+
+    @Override
+    public List<Boolean> deleteById(Long id, LocalDateTime deletedAt) {
+        return deleteByIdIn(List.of(id), deletedAt).stream().map(TodoRepository.DeletedTodo::getCompleted).toList();
+    }
+
+    @Override
+    public List<TodoRepository.DeletedTodo> deleteByIdIn(Collection<Long> ids, LocalDateTime deletedAt) {
+        return delete(todoRepository.findDeletableByIdIn(ids), deletedAt);
+    }
+
+    @Override
+    public int deleteByCompleted(boolean completed, LocalDateTime deletedAt) {
+        return delete(todoRepository.findDeletableByCompleted(completed), deletedAt).size();
+    }
+
+    private List<TodoRepository.DeletedTodo> delete(List<TodoRepository.DeletedTodo> rows, LocalDateTime deletedAt) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        List<Long> ids = rows.stream().map(TodoRepository.DeletedTodo::getId).toList();
+        // tombstone ก่อน: insert ... select ต้องยังเห็นแถวใน todos
+        todoRepository.insertTombstonesByIdIn(ids, deletedAt);
+        todoRepository.deleteAllByIdIn(ids);
+        return rows;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bannakon.zentasks.repository;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link TodoRepository#findAll()} and {@link TodoRepository#findByCompleted(boolean)}
+ * over R2DBC. Rows are emitted as the subscriber requests them; the driver fetches {@link #FETCH_SIZE}
+ * rows per round trip, so a slow client holds a cursor, not the whole table.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTodoRepository {
+
+    static final int FETCH_SIZE = TodoRepository.EXPORT_FETCH_SIZE;
+
+    private static final String SELECT =
+            "select id, title, completed, created_at, updated_at from todos ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTodoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<TodoResponse> findAll() {
+        return databaseClient.sql(SELECT + "order by created_at asc, id asc")
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+
+    public Flux<TodoResponse> findByCompleted(boolean completed) {
+        return databaseClient.sql(SELECT + "where completed = :completed order by created_at asc, id asc")
+                .bind("completed", completed)
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ReactiveTodoRepository::toResponse)
+                .all();
+    }
+
+    private static TodoResponse toResponse(Readable row) {
+        return new TodoResponse(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                Boolean.TRUE.equals(row.get("completed", Boolean.class)),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,36 @@
+package com.bannakon.zentasks.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One round trip per delete: {@code DELETE ... RETURNING} with the tombstone insert in the same CTE
+ * (see {@link TodoRepository#deleteTodosByIdInReturning}).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "zentasks.delete.strategy", havingValue = "returning", matchIfMissing = true)
+public class ReturningTodoDeleter implements TodoDeleter {
+
+    private final TodoRepository todoRepository;
+
+    @Override
+    public List<Boolean> deleteById(Long id, LocalDateTime deletedAt) {
+        return todoRepository.deleteTodoByIdReturningCompleted(id, deletedAt);
+    }
+
+    @Override
+    public List<TodoRepository.DeletedTodo> deleteByIdIn(Collection<Long> ids, LocalDateTime deletedAt) {
+        return todoRepository.deleteTodosByIdInReturning(ids, deletedAt);
+    }
+
+    @Override
+    public int deleteByCompleted(boolean completed, LocalDateTime deletedAt) {
+        return todoRepository.deleteTodosByCompleted(completed, deletedAt);
+    }
+}
@@ -0,0 +1,102 @@
+package com.bannakon.zentasks.repository;
+
+import com.bannakon.zentasks.entity.TodoDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TodoDailyStatRepository extends JpaRepository<TodoDailyStat, TodoDailyStat.Key> {
+
+    interface Totals {
+        Long getOpenCount();
+
+        Long getCompletedCount();
+    }
+
+    interface DailyTotals {
+        LocalDate getStatDate();
+
+        Long getCreatedCount();
+
+        Long getCompletedCount();
+
+        Long getReopenedCount();
+
+        Long getDeletedCount();
+    }
+
+    @Query("select s.statDate as statDate, sum(s.createdCount) as createdCount, " +
+            "sum(s.completedCount) as completedCount, sum(s.reopenedCount) as reopenedCount, " +
+            "sum(s.deletedCount) as deletedCount " +
+            "from TodoDailyStat s where s.statDate between :from and :to " +
+            "group by s.statDate order by s.statDate asc")
+    List<DailyTotals> sumDaysBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select coalesce(sum(s.openDelta), 0) as openCount, coalesce(sum(s.completedDelta), 0) as completedCount " +
+            "from TodoDailyStat s")
+    Totals sumTotals();
+
+    @Query("select coalesce(sum(s.changeCount), 0) from TodoDailyStat s")
+    long sumChangeCount();
+
+    @Modifying
+    @Query("update TodoDailyStat s set " +
+            "s.createdCount = s.createdCount + :created, " +
+            "s.completedCount = s.completedCount + :completed, " +
+            "s.reopenedCount = s.reopenedCount + :reopened, " +
+            "s.deletedCount = s.deletedCount + :deleted, " +
+            "s.openDelta = s.openDelta + :openDelta, " +
+            "s.completedDelta = s.completedDelta + :completedDelta, " +
+            "s.changeCount = s.changeCount + :changes " +
+            "where s.statDate = :day and s.stripe = :stripe")
+    int increment(@Param("day") LocalDate day,
+                  @Param("stripe") int stripe,
+                  @Param("created") long created,
+                  @Param("completed") long completed,
+                  @Param("reopened") long reopened,
+                  @Param("deleted") long deleted,
+                  @Param("openDelta") long openDelta,
+                  @Param("completedDelta") long completedDelta,
+                  @Param("changes") long changes);
+
+    // แถว (วัน, stripe) ใหม่: insert แถวว่างแบบ idempotent แล้วค่อย increment ซ้ำ (ปลอดภัยเมื่อหลาย request มาพร้อมกัน)
+    @Modifying
+    @Query(value = "insert into todo_daily_stats " +
+            "(stat_date, stripe, created_count, completed_count, reopened_count, deleted_count, open_delta, completed_delta, change_count) " +
+            "values (:day, :stripe, 0, 0, 0, 0, 0, 0, 0) on conflict do nothing", nativeQuery = true)
+    int insertEmptyDay(@Param("day") LocalDate day, @Param("stripe") int stripe);
+
+    // กันไม่ให้ writer แตะ stat row ระหว่าง rebuild: รอ transaction ที่ increment ค้างอยู่ commit ก่อน
+    // แล้ว writer ใหม่รอจน rebuild commit (reader ยังอ่านแถวเดิมได้ตลอด)
+    @Modifying
+    @Query(value = "lock table todo_daily_stats in exclusive mode", nativeQuery = true)
+    void lockAllStats();
+
+    @Modifying
+    @Query(value = "delete from todo_daily_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    // สร้าง rollup ใหม่จาก todos และ todos_archive (วันที่ complete ประมาณจาก updated_at; ประวัติการลบ/reopen กู้คืนไม่ได้)
+    // แต่ละวันกระจายลงทุก stripe ตาม id (ไม่กองที่ stripe 0) ต้องใช้ primary key (stat_date, stripe) จาก SchemaUpgrade
+    String ALL_TODOS = "(select id, created_at, updated_at, completed from todos " +
+            "union all select id, created_at, updated_at, completed from todos_archive) t";
+
+    @Modifying
+    @Query(value = "insert into todo_daily_stats " +
+            "(stat_date, stripe, created_count, completed_count, reopened_count, deleted_count, open_delta, completed_delta, change_count) " +
+            "select d, stripe, sum(created), sum(completed), 0, 0, sum(open_delta), sum(completed_delta), 0 from (" +
+            "  select cast(created_at as date) as d, mod(id, :stripes) as stripe, 1 as created, 0 as completed, " +
+            "         case when completed then 0 else 1 end as open_delta, " +
+            "         case when completed then 1 else 0 end as completed_delta " +
+            "  from " + ALL_TODOS +
+            "  union all " +
+            "  select cast(updated_at as date), mod(id, :stripes), 0, 1, 0, 0 from " + ALL_TODOS + " where completed = true" +
+            ") x group by d, stripe", nativeQuery = true)
+    int rebuildFromTodos(@Param("stripes") int stripes);
+}
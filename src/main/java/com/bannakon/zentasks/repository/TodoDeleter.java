@@ -0,0 +1,28 @@
+package com.bannakon.zentasks.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deletes todos and writes their delta-sync tombstones; must run inside the caller's write transaction.
+ * {@code zentasks.delete.strategy} picks the implementation: {@code returning} (one PostgreSQL statement,
+ * default) or {@code portable} (JPQL statements for H2 in tests, benchmarks and the load test).
+ */
+public interface TodoDeleter {
+
+    /**
+     * @return the completed flag of the deleted todo, empty when there was no such todo
+     */
+    List<Boolean> deleteById(Long id, LocalDateTime deletedAt);
+
+    /**
+     * @return id and completed flag of the todos that existed and were deleted
+     */
+    List<TodoRepository.DeletedTodo> deleteByIdIn(Collection<Long> ids, LocalDateTime deletedAt);
+
+    /**
+     * @return the number of todos deleted
+     */
+    int deleteByCompleted(boolean completed, LocalDateTime deletedAt);
+}
@@ -1,12 +1,146 @@
 package com.bannakon.zentasks.repository;
 
+import com.bannakon.zentasks.dto.TodoResponse;
 import com.bannakon.zentasks.entity.Todo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, Long> {
+    int EXPORT_FETCH_SIZE = 500;
+
+    interface TodoTitle {
+        Long getId();
+
+        String getTitle();
+    }
+
+    interface DeletedTodo {
+        Long getId();
+
+        Boolean getCompleted();
+    }
+
     List<Todo> findByCompleted(boolean completed);
+
+    // Keyset pagination on (createdAt, id): the leading ">=" lets the index range scan start at the cursor,
+    // so every page costs the same no matter how deep the client is.
+    // Read paths project straight into TodoResponse: no managed entities, no dirty-checking snapshots.
+    String RESPONSE_PROJECTION = "select new com.bannakon.zentasks.dto.TodoResponse(" +
+            "t.id, t.title, t.completed, t.createdAt, t.updatedAt) from Todo t ";
+
+    @Query(RESPONSE_PROJECTION + "order by t.createdAt asc, t.id asc")
+    List<TodoResponse> findFirstPage(Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION +
+            "where t.createdAt >= :createdAt and (t.createdAt > :createdAt or t.id > :id) " +
+            "order by t.createdAt asc, t.id asc")
+    List<TodoResponse> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "where t.completed = :completed order by t.createdAt asc, t.id asc")
+    List<TodoResponse> findFirstPageByCompleted(@Param("completed") boolean completed, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION +
+            "where t.completed = :completed " +
+            "and t.createdAt >= :createdAt and (t.createdAt > :createdAt or t.id > :id) " +
+            "order by t.createdAt asc, t.id asc")
+    List<TodoResponse> findPageByCompletedAfter(@Param("completed") boolean completed,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    // Delta sync: rows changed after the client's position, up to the sync horizon (see TodoSyncService).
+    @Query(RESPONSE_PROJECTION +
+            "where t.updatedAt >= :updatedAt and (t.updatedAt > :updatedAt or t.id > :id) " +
+            "and t.updatedAt < :before " +
+            "order by t.updatedAt asc, t.id asc")
+    List<TodoResponse> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                        @Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query(RESPONSE_PROJECTION + "where t.id in :ids")
+    List<TodoResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select t.id as id, t.title as title from Todo t")
+    Stream<TodoTitle> streamTitles();
+
+    // Server-side cursor สำหรับ export: ต้องเรียกภายใน transaction และปิด Stream เสมอ
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Todo t order by t.id asc")
+    Stream<Todo> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Todo t where t.completed = :completed order by t.id asc")
+    Stream<Todo> streamByCompleted(@Param("completed") boolean completed);
+
+    // Set-based updates: one statement, no entities loaded. Rows already in the target state are skipped,
+    // so the returned count is the number of todos that actually changed.
+    // updatedAt comes from the caller (the app clock, like entity writes), not CURRENT_TIMESTAMP: delta sync
+    // compares it with a horizon on the same clock.
+    @Modifying
+    @Query("update Todo t set t.completed = :completed, t.updatedAt = :now, t.version = t.version + 1 " +
+            "where t.id in :ids and t.completed <> :completed")
+    int updateCompletedByIdIn(@Param("ids") Collection<Long> ids, @Param("completed") boolean completed,
+                              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Todo t set t.completed = :completed, t.updatedAt = :now, t.version = t.version + 1 " +
+            "where t.createdAt < :createdBefore and t.completed <> :completed")
+    int updateCompletedByCreatedAtBefore(@Param("createdBefore") LocalDateTime createdBefore,
+                                         @Param("completed") boolean completed,
+                                         @Param("now") LocalDateTime now);
+
+    // ชุดคำสั่ง JPQL ของ PortableTodoDeleter (ฐานข้อมูลที่ไม่มี DELETE ... RETURNING เช่น H2)
+    @Query("select t.id as id, t.completed as completed from Todo t where t.id in :ids")
+    List<DeletedTodo> findDeletableByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select t.id as id, t.completed as completed from Todo t where t.completed = :completed")
+    List<DeletedTodo> findDeletableByCompleted(@Param("completed") boolean completed);
+
+    @Modifying
+    @Query("insert into TodoTombstone (todoId, deletedAt) " +
+            "select t.id, cast(:deletedAt as LocalDateTime) from Todo t where t.id in :ids")
+    int insertTombstonesByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("delete from Todo t where t.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // DELETE ตรงๆ ครั้งเดียว: RETURNING บอกทั้งว่ามีแถวถูกลบหรือไม่ (404) และสถานะ completed สำหรับ statistics
+    // และ CTE เขียน tombstone ของแถวที่ลบจริงใน statement เดียวกัน (native query เพราะ JPQL ไม่มี RETURNING)
+    // deleted_at มาจากนาฬิกาเดียวกับ horizon ของ delta sync (ไม่ใช่ localtimestamp ของ database)
+    String INSERT_TOMBSTONES = "tombstones as (insert into todo_tombstones (todo_id, deleted_at) " +
+            "select id, :deletedAt from deleted) ";
+
+    @Query(value = "with deleted as (delete from todos where id = :id returning id, completed), " +
+            INSERT_TOMBSTONES + "select completed from deleted", nativeQuery = true)
+    List<Boolean> deleteTodoByIdReturningCompleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // คืน id ด้วย: id ที่ไม่มีอยู่จริงต้องไม่ถูกประกาศใน TodoChangedEvent
+    @Query(value = "with deleted as (delete from todos where id in (:ids) returning id, completed), " +
+            INSERT_TOMBSTONES + "select id, completed from deleted", nativeQuery = true)
+    List<DeletedTodo> deleteTodosByIdInReturning(@Param("ids") Collection<Long> ids,
+                                                 @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query(value = "with deleted as (delete from todos where completed = :completed returning id), " +
+            INSERT_TOMBSTONES + "select count(*) from deleted", nativeQuery = true)
+    int deleteTodosByCompleted(@Param("completed") boolean completed, @Param("deletedAt") LocalDateTime deletedAt);
 }
@@ -0,0 +1,30 @@
+package com.bannakon.zentasks.repository;
+
+import com.bannakon.zentasks.entity.TodoTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    // Keyset on (deletedAt, todoId) like TodoRepository.findChangedAfter; "before" is the sync horizon.
+    @Query("select t from TodoTombstone t " +
+            "where t.deletedAt >= :deletedAt and (t.deletedAt > :deletedAt or t.todoId > :todoId) " +
+            "and t.deletedAt < :before " +
+            "order by t.deletedAt asc, t.todoId asc")
+    List<TodoTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                         @Param("todoId") Long todoId,
+                                         @Param("before") LocalDateTime before,
+                                         Pageable pageable);
+
+    @Modifying
+    @Query("delete from TodoTombstone t where t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
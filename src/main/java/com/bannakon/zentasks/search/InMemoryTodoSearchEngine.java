@@ -0,0 +1,154 @@
+package com.bannakon.zentasks.search;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.bannakon.zentasks.repository.TodoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Trigram inverted index kept in the JVM, for databases without pg_trgm (H2 in tests and benchmarks).
+ * Scoring mirrors pg_trgm: shared trigrams / union of trigrams, plus a bonus for substring matches.
+ * The index is rebuilt from the table at startup and kept current from {@link TodoChangedEvent}s;
+ * rows deleted by filter-based bulk deletes are pruned lazily when a search no longer finds them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "zentasks.search.engine", havingValue = "memory")
+public class InMemoryTodoSearchEngine implements TodoSearchEngine {
+
+    static final double SIMILARITY_THRESHOLD = 0.3;
+
+    private final TodoRepository todoRepository;
+
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @Override
+    public List<TodoResponse> search(String query, int offset, int limit) {
+        List<Long> ranked = rankedIds(query);
+        if (offset >= ranked.size()) {
+            return List.of();
+        }
+        List<Long> pageIds = ranked.subList(offset, Math.min(ranked.size(), offset + limit));
+
+        Map<Long, TodoResponse> byId = todoRepository.findResponsesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(TodoResponse::getId, Function.identity()));
+        List<TodoResponse> results = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            TodoResponse todo = byId.get(id);
+            if (todo == null) {
+                remove(id);
+            } else {
+                results.add(todo);
+            }
+        }
+        return results;
+    }
+
+    List<Long> rankedIds(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        Set<String> queryGrams = trigrams(needle);
+        Map<Long, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (Long id : postings.getOrDefault(gram, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        shared.forEach((id, common) -> {
+            String title = titles.get(id);
+            if (title == null) {
+                return;
+            }
+            String lower = title.toLowerCase(Locale.ROOT);
+            int union = queryGrams.size() + trigrams(lower).size() - common;
+            double score = union == 0 ? 0 : (double) common / union;
+            boolean contains = lower.contains(needle);
+            if (score >= SIMILARITY_THRESHOLD || contains) {
+                scores.put(id, contains ? score + 1 : score);
+            }
+        });
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        titles.clear();
+        postings.clear();
+        try (Stream<TodoRepository.TodoTitle> rows = todoRepository.streamTitles()) {
+            rows.forEach(row -> index(row.getId(), row.getTitle()));
+        }
+        log.info("In-memory search index built with {} todos", titles.size());
+    }
+
+    @TransactionalEventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> event.getTodos().forEach(todo -> index(todo.getId(), todo.getTitle()));
+            case DELETED, ARCHIVED -> event.getIds().forEach(this::remove);
+        }
+    }
+
+    synchronized void index(Long id, String title) {
+        remove(id);
+        if (title == null) {
+            return;
+        }
+        titles.put(id, title);
+        for (String gram : trigrams(title.toLowerCase(Locale.ROOT))) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        String previous = titles.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : trigrams(previous.toLowerCase(Locale.ROOT))) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // เหมือน pg_trgm: แต่ละคำเติมช่องว่างหน้า 2 ตัว หลัง 1 ตัว แล้วตัดทีละ 3 ตัวอักษร
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{M}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+}
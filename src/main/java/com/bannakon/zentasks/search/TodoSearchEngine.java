@@ -0,0 +1,20 @@
+package com.bannakon.zentasks.search;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+
+import java.util.List;
+
+/**
+ * Ranked title search. {@code zentasks.search.engine} picks the implementation:
+ * {@code postgres} (pg_trgm GiST index, default) or {@code memory} (in-process trigram index for H2/tests).
+ */
+public interface TodoSearchEngine {
+
+    /**
+     * @param query  user input, already trimmed and non-blank
+     * @param offset number of ranked results to skip
+     * @param limit  maximum number of results to return
+     * @return matching todos, best match first
+     */
+    List<TodoResponse> search(String query, int offset, int limit);
+}
@@ -0,0 +1,227 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.bannakon.zentasks.repository.TodoRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind for completion toggles ({@code zentasks.write-behind.enabled=true}).
+ * <p>
+ * A toggle only records the latest requested state per id; repeated clicks on the same todo within one
+ * flush interval collapse into a single row update, and a toggle that ends where it started updates nothing.
+ * Pending ids are written in one transaction per interval (group commit) with the same set-based UPDATE
+ * as the bulk completion endpoint. {@link TodoService} overlays pending state on reads and flushes an id
+ * before any other write touches it, so per-todo ordering is preserved. Flushes run in their own transaction
+ * and must be called before the caller opens one; otherwise each request would hold two pooled connections.
+ * <p>
+ * On shutdown pending toggles are flushed; if the database is unreachable they are written to
+ * {@code zentasks.write-behind.journal} and replayed on the next start. A crash (kill -9) loses at most
+ * one flush interval of toggles.
+ */
+@Slf4j
+@Component
+public class CompletionWriteBehind {
+
+    // ต้องไม่เกิน MAX_BULK_IDS เพราะ flush ใช้ query "id in (...)" เดียวกับ bulk endpoint
+    static final int MAX_PENDING = TodoService.MAX_BULK_IDS;
+
+    public record Pending(boolean completed, LocalDateTime requestedAt) {
+    }
+
+    private final boolean enabled;
+    private final Path journal;
+    private final TodoRepository todoRepository;
+    private final TodoStatsService todoStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    // ไม่ใช้ synchronized: virtual thread ที่รอ JDBC อยู่ใน monitor จะ pin carrier thread ไว้
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public CompletionWriteBehind(@Value("${zentasks.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${zentasks.write-behind.journal:write-behind.journal}") Path journal,
+                                 TodoRepository todoRepository, TodoStatsService todoStatsService,
+                                 ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.journal = journal;
+        this.todoRepository = todoRepository;
+        this.todoStatsService = todoStatsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queues the toggle. Returns false when write-behind is off or the buffer is full;
+     * the caller then writes synchronously.
+     */
+    public boolean offer(Long id, boolean completed) {
+        if (!enabled || (pending.size() >= MAX_PENDING && !pending.containsKey(id))) {
+            return false;
+        }
+        pending.put(id, new Pending(completed, LocalDateTime.now()));
+        return true;
+    }
+
+    public Optional<Pending> pendingFor(Long id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    public Set<Long> pendingIds() {
+        return Set.copyOf(pending.keySet());
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Identifies what is in the buffer right now, 0 when it is empty. Reads overlay pending state, so the
+     * collection ETag carries this next to the durable change counter: the buffer belongs to this instance
+     * only and is gone after a restart, so it must not be folded into the counter itself.
+     */
+    public long pendingFingerprint() {
+        long fingerprint = 0;
+        // ผลรวมไม่ขึ้นกับลำดับการวน map
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            Pending state = entry.getValue();
+            fingerprint += mix(entry.getKey() * 31 + (state.completed() ? 1 : 0)) ^ mix(state.requestedAt().hashCode());
+        }
+        return fingerprint;
+    }
+
+    public void flush(Collection<Long> ids) {
+        Map<Long, Pending> batch = new HashMap<>();
+        for (Long id : ids) {
+            Pending state = pending.get(id);
+            if (state != null) {
+                batch.put(id, state);
+            }
+        }
+        write(batch);
+    }
+
+    public void flushAll() {
+        write(new HashMap<>(pending));
+    }
+
+    @Scheduled(fixedDelayString = "${zentasks.write-behind.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            flushAll();
+        } catch (RuntimeException e) {
+            // คงไว้ใน buffer แล้วลองใหม่รอบถัดไป
+            log.warn("Write-behind flush of {} todos failed, will retry: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            flushAll();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed on shutdown, journaling {} todos to {}", pending.size(), journal, e);
+            writeJournal();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(journal);
+            for (String line : lines) {
+                String[] fields = line.split(",");
+                pending.putIfAbsent(Long.valueOf(fields[0]),
+                        new Pending(Boolean.parseBoolean(fields[1]), LocalDateTime.parse(fields[2])));
+            }
+            Files.delete(journal);
+            log.info("Replayed {} journaled completion toggles from {}", lines.size(), journal);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay write-behind journal " + journal, e);
+        }
+    }
+
+    private void write(Map<Long, Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "Write-behind must be flushed before the caller's transaction starts");
+        flushLock.lock();
+        try {
+            List<Long> complete = new ArrayList<>();
+            List<Long> reopen = new ArrayList<>();
+            batch.forEach((id, state) -> (state.completed() ? complete : reopen).add(id));
+            // เวลาที่เขียนจริง (ไม่ใช่ requestedAt): delta sync ถือว่า updatedAt ห่างจาก commit ไม่เกิน commit-lag
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                // แถวที่สถานะตรงอยู่แล้วถูกข้ามด้วย "completed <> :completed" จึงนับ stats เฉพาะที่เปลี่ยนจริง
+                if (!complete.isEmpty()) {
+                    todoStatsService.recordCompletionChanged(true, todoRepository.updateCompletedByIdIn(complete, true, now));
+                }
+                if (!reopen.isEmpty()) {
+                    todoStatsService.recordCompletionChanged(false, todoRepository.updateCompletedByIdIn(reopen, false, now));
+                }
+                eventPublisher.publishEvent(TodoChangedEvent.updated(new ArrayList<>(batch.keySet())));
+            });
+            // ถ้ามี toggle ใหม่เข้ามาระหว่าง flush ค่าใน map จะไม่เท่ากับที่เขียนไป จึงยังค้างไว้ให้รอบถัดไป
+            batch.forEach(pending::remove);
+        } finally {
+            flushLock.unlock();
+        }
+        log.debug("Write-behind flushed {} todos", batch.size());
+    }
+
+    // finalizer ของ MurmurHash3: กระจาย bit ให้ผลรวมของหลาย entry ไม่ชนกันง่าย
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private void writeJournal() {
+        List<String> lines = new ArrayList<>(pending.size());
+        pending.forEach((id, state) -> lines.add(id + "," + state.completed() + "," + state.requestedAt()));
+        try {
+            Files.write(journal, lines);
+        } catch (IOException e) {
+            log.error("Could not write write-behind journal {}, {} toggles lost", journal, lines.size(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.repository.ReactiveTodoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only, non-blocking list/filter streams ({@code reactive} profile). Writes stay on {@link TodoService}.
+ * Pending write-behind toggles are overlaid per row (a map lookup, no blocking). The completion filter can't
+ * flush first like {@link TodoService#getTodosByCompletion} does, so a row whose toggle is still pending is
+ * left out of both filters until the next flush.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTodoService {
+
+    private final ReactiveTodoRepository reactiveTodoRepository;
+    private final CompletionWriteBehind completionWriteBehind;
+
+    public Flux<TodoResponse> streamTodos() {
+        return reactiveTodoRepository.findAll().map(this::withPending);
+    }
+
+    public Flux<TodoResponse> streamTodosByCompletion(boolean completed) {
+        return reactiveTodoRepository.findByCompleted(completed)
+                .filter(todo -> completionWriteBehind.pendingFor(todo.getId()).isEmpty());
+    }
+
+    private TodoResponse withPending(TodoResponse todo) {
+        return completionWriteBehind.pendingFor(todo.getId())
+                .filter(pending -> pending.completed() != todo.isCompleted())
+                .map(pending -> new TodoResponse(todo.getId(), todo.getTitle(), pending.completed(),
+                        todo.getCreatedAt(), pending.requestedAt()))
+                .orElse(todo);
+    }
+}
@@ -0,0 +1,116 @@
+package com.bannakon.zentasks.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opt-in hot/cold archival ({@code zentasks.archive.enabled=true}): moves todos completed more than
+ * {@code zentasks.archive.min-age} ago from {@code todos} to {@code todos_archive}, so the hot table and its
+ * indexes only hold open and recently completed todos.
+ * <p>
+ * Each run moves up to {@code max-batches-per-run} batches of {@code batch-size} rows, one short transaction
+ * per batch, pausing between batches so autovacuum, replicas and regular traffic keep up. A batch is a single
+ * statement that skips rows locked by requests, so the job never waits on or blocks the hot path for long.
+ * There is no job state to recover: after a crash the next run simply picks up whatever is still eligible.
+ * Several instances may run it at the same time.
+ * <p>
+ * A run takes tens of seconds, so it doesn't run on the shared task scheduler (one thread outside
+ * virtual-thread mode): that would hold up the write-behind flush, SSE heartbeats, replica health checks
+ * and the tombstone purge. The schedule only hands the run to the archiver's own thread, and skips a tick
+ * while the previous run is still going.
+ */
+@Slf4j
+@Component
+public class TodoArchiver {
+
+    private final TodoService todoService;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public TodoArchiver(TodoService todoService,
+                        @Value("${zentasks.archive.enabled:false}") boolean enabled,
+                        @Value("${zentasks.archive.min-age:30d}") Duration minAge,
+                        @Value("${zentasks.archive.batch-size:500}") int batchSize,
+                        @Value("${zentasks.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+                        @Value("${zentasks.archive.pause-between-batches:200ms}") Duration pauseBetweenBatches) {
+        this(todoService, enabled, minAge, batchSize, maxBatchesPerRun, pauseBetweenBatches,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("todo-archiver").factory()));
+    }
+
+    TodoArchiver(TodoService todoService, boolean enabled, Duration minAge, int batchSize, int maxBatchesPerRun,
+                 Duration pauseBetweenBatches, ExecutorService executor) {
+        this.todoService = todoService;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.executor = executor;
+    }
+
+    @Scheduled(fixedDelayString = "${zentasks.archive.interval-ms:600000}",
+            initialDelayString = "${zentasks.archive.initial-delay-ms:60000}")
+    public void archive() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // กำลัง shutdown
+            running.set(false);
+        }
+    }
+
+    // หยุดรอบที่ค้างอยู่: sleep ระหว่าง batch ถูก interrupt, batch ที่ commit แล้วไม่หาย
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    void run() {
+        LocalDateTime completedBefore = LocalDateTime.now().minus(minAge);
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = todoService.archiveCompleted(completedBefore, batchSize);
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseBetweenBatches.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // batch ที่ commit แล้วไม่หาย ส่วนที่เหลือรอบถัดไปจะหยิบต่อเอง
+            log.warn("Archiving stopped after {} todos, will resume next run: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Archived {} todos completed before {}", total, completedBefore);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.entity.Todo;
+import com.bannakon.zentasks.repository.TodoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes todos as newline-delimited JSON straight from a database cursor.
+ * Each entity is detached right after it is written so heap use stays flat regardless of row count.
+ */
+@Slf4j
+@Service
+public class TodoExportService {
+
+    private static final int FLUSH_EVERY = TodoRepository.EXPORT_FETCH_SIZE;
+    private static final byte NEWLINE = '\n';
+
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CompletionWriteBehind completionWriteBehind;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TodoExportService(TodoRepository todoRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                             CompletionWriteBehind completionWriteBehind, PlatformTransactionManager transactionManager) {
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.completionWriteBehind = completionWriteBehind;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long exportTodos(Boolean completed, OutputStream out) throws IOException {
+        // flush ก่อนเปิด transaction (ดู TodoService) แล้วค่อยเปิด cursor
+        completionWriteBehind.flushAll();
+        try {
+            return readOnlyTransaction.execute(status -> {
+                try {
+                    return writeTodos(completed, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeTodos(Boolean completed, OutputStream out) throws IOException {
+        long count = 0;
+        // try-with-resources ปิด cursor ให้เสมอ รวมถึงตอน client ตัดการเชื่อมต่อกลางทาง (IOException)
+        try (Stream<Todo> todos = completed == null
+                ? todoRepository.streamAll()
+                : todoRepository.streamByCompleted(completed)) {
+            Iterator<Todo> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                Todo todo = iterator.next();
+                TodoResponse line = new TodoResponse(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getCreatedAt(), todo.getUpdatedAt());
+                entityManager.detach(todo);
+
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write(NEWLINE);
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.info("Todo export aborted after {} rows: {}", count, e.getMessage());
+            throw e;
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -1,31 +1,154 @@
 package com.bannakon.zentasks.service;
 
+import com.bannakon.zentasks.config.CacheConfig;
+import com.bannakon.zentasks.dto.BulkCompletionRequest;
+import com.bannakon.zentasks.dto.CursorPage;
+import com.bannakon.zentasks.dto.TodoCursor;
 import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.TodoResponse;
 import com.bannakon.zentasks.dto.UpdateTodoRequest;
+import com.bannakon.zentasks.entity.ArchivedTodo;
 import com.bannakon.zentasks.entity.Todo;
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.bannakon.zentasks.repository.ArchivedTodoRepository;
+import com.bannakon.zentasks.repository.TodoDeleter;
 import com.bannakon.zentasks.repository.TodoRepository;
+import com.bannakon.zentasks.search.TodoSearchEngine;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class TodoService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    // ต้องตรงกับ hibernate.jdbc.batch_size และ allocationSize ของ todos_seq
+    public static final int INSERT_BATCH_SIZE = 50;
+    public static final int MAX_BULK_IDS = 10_000;
+    // ผลค้นหาเรียงตามคะแนน จึงใช้ offset ได้ แต่จำกัดความลึกไว้ไม่ให้ query แพงเกินไป
+    public static final int MAX_SEARCH_RESULTS = 1_000;
+    // pg_trgm ดึง trigram จาก pattern ILIKE ที่สั้นกว่า 3 ตัวอักษรไม่ได้ (index ใช้ไม่ได้ = scan ทั้งตาราง)
+    public static final int MIN_SEARCH_LENGTH = 3;
+
+    // ลำดับเดียวกับ keyset (createdAt, id) ของทั้ง todos และ todos_archive
+    private static final Comparator<TodoResponse> PAGE_ORDER =
+            Comparator.comparing(TodoResponse::getCreatedAt).thenComparing(TodoResponse::getId);
+
     private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final TodoStatsService todoStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoSearchEngine todoSearchEngine;
+    private final CompletionWriteBehind completionWriteBehind;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final TodoDeleter todoDeleter;
+    // method ที่ต้อง flush write-behind ก่อน เปิด transaction เองหลัง flush แทน @Transactional:
+    // flush ใช้ connection ของตัวเอง ถ้าทำใน transaction ของ request จะถือ 2 connection พร้อมกัน (pool หมดได้)
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public TodoService(TodoRepository todoRepository) {
+    public TodoService(TodoRepository todoRepository, EntityManager entityManager,
+                       TodoStatsService todoStatsService, ApplicationEventPublisher eventPublisher,
+                       TodoSearchEngine todoSearchEngine, CompletionWriteBehind completionWriteBehind,
+                       ArchivedTodoRepository archivedTodoRepository, TodoDeleter todoDeleter,
+                       PlatformTransactionManager transactionManager) {
         this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.todoStatsService = todoStatsService;
+        this.eventPublisher = eventPublisher;
+        this.todoSearchEngine = todoSearchEngine;
+        this.completionWriteBehind = completionWriteBehind;
+        this.archivedTodoRepository = archivedTodoRepository;
+        this.todoDeleter = todoDeleter;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TODO_PAGES, key = "'all:' + #cursor + ':' + #limit")
+    public CursorPage<TodoResponse> getAllDataTodos(String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        TodoCursor after = decodeCursor(cursor);
+        String version = collectionVersion();
+        List<TodoResponse> todos = after == null
+                ? todoRepository.findFirstPage(page)
+                : todoRepository.findPageAfter(after.getCreatedAt(), after.getId(), page);
+        return toPage(withPending(todos), limit, version);
+    }
+
+    // includeArchived=true: ดึงหน้าเดียวกันจากทั้งสองตาราง (index ละ 1 range scan) แล้ว merge
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TODO_PAGES, key = "'all+archived:' + #cursor + ':' + #limit")
+    public CursorPage<TodoResponse> getAllDataTodosIncludingArchived(String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        TodoCursor after = decodeCursor(cursor);
+        String version = collectionVersion();
+        List<TodoResponse> hot = after == null
+                ? todoRepository.findFirstPage(page)
+                : todoRepository.findPageAfter(after.getCreatedAt(), after.getId(), page);
+        List<TodoResponse> archived = after == null
+                ? archivedTodoRepository.findFirstPage(page)
+                : archivedTodoRepository.findPageAfter(after.getCreatedAt(), after.getId(), page);
+        return toPage(withPending(merge(hot, archived, limit + 1)), limit, version);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TodoResponse> searchTodos(String query, int page, int size) {
+        String q = query == null ? "" : query.trim();
+        if (q.length() < MIN_SEARCH_LENGTH || q.length() > 255) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "q must be between " + MIN_SEARCH_LENGTH + " and 255 characters");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || (long) (page + 1) * size > MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page/size must stay within the first " + MAX_SEARCH_RESULTS + " results");
+        }
+        return withPending(todoSearchEngine.search(q, page * size, size));
     }
 
-    public List<Todo> getAllDataTodos() {
-        return todoRepository.findAll();
+    @Cacheable(cacheNames = CacheConfig.TODO_BY_ID, key = "#id")
+    public Todo getTodo(Long id) {
+        Todo todo = todoRepository.findById(id).orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Todo not found with id: " + id
+        ));
+        // ค่าที่ cache ต้องไม่ใช่ instance ใน persistence context (ถ้าถูกเรียกใน transaction ของ caller จะยัง managed)
+        return snapshot(withPending(todo));
     }
 
+    // todo ที่ถูก archive แล้วอ่านได้อย่างเดียว (ไม่ cache: อ่านน้อย และ id เดียวกันไม่มีทางกลับไป todos)
+    @Transactional(readOnly = true)
+    public Todo getTodoIncludingArchived(Long id) {
+        return todoRepository.findById(id)
+                .map(this::withPending)
+                .or(() -> archivedTodoRepository.findById(id).map(ArchivedTodo::toTodo))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo not found with id: " + id));
+    }
+
+    // หน้า list ขึ้นกับทุกแถว จึงล้าง todoPages ทั้งหมดเมื่อมีการเขียน ส่วน todoById ล้างเฉพาะ id ที่เปลี่ยน
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODO_PAGES, allEntries = true)
     public Todo createDataTodo(TodoRequest todoRequest) {
         Todo todo = new Todo();
         todo.setTitle(todoRequest.getTitle());
@@ -34,36 +157,326 @@ public class TodoService {
         LocalDateTime now = LocalDateTime.now();
         todo.setCreatedAt(now);
         todo.setUpdatedAt(now);
-        return todoRepository.save(todo);
+        Todo saved = todoRepository.save(todo);
+        todoStatsService.recordCreated(saved.isCompleted() ? 0 : 1, saved.isCompleted() ? 1 : 0);
+        eventPublisher.publishEvent(TodoChangedEvent.created(List.of(toResponse(saved))));
+        return saved;
+    }
+
+    // Insert ทั้งหมดใน transaction เดียว: flush + clear ทุก INSERT_BATCH_SIZE แถว
+    // เพื่อให้ Hibernate ส่งเป็น JDBC batch และ persistence context ไม่โตตามจำนวนรายการ
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TODO_PAGES, allEntries = true)
+    public List<Todo> createDataTodos(List<TodoRequest> todoRequests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> created = new ArrayList<>(todoRequests.size());
+        long completedCount = 0;
+        for (TodoRequest todoRequest : todoRequests) {
+            Todo todo = new Todo();
+            todo.setTitle(todoRequest.getTitle());
+            todo.setCompleted(todoRequest.isCompleted());
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+            entityManager.persist(todo);
+            created.add(todo);
+            if (todo.isCompleted()) {
+                completedCount++;
+            }
+
+            if (created.size() % INSERT_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        todoStatsService.recordCreated(created.size() - completedCount, completedCount);
+        eventPublisher.publishEvent(TodoChangedEvent.created(created.stream().map(TodoService::toResponse).toList()));
+        return created;
     }
 
-    public Todo updateTodo(Long id, UpdateTodoRequest request) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TODO_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TODO_PAGES, allEntries = true)
+    })
+    public Todo updateTodo(Long id, UpdateTodoRequest request, Long expectedVersion) {
+        boolean toggleOnly = expectedVersion == null && request.getTitle() == null && request.getCompleted() != null;
+        if (!toggleOnly) {
+            completionWriteBehind.flush(List.of(id));
+        }
+        return writeTransaction.execute(status -> applyUpdate(id, request, expectedVersion, toggleOnly));
+    }
+
+    private Todo applyUpdate(Long id, UpdateTodoRequest request, Long expectedVersion, boolean toggleOnly) {
         Todo todo = todoRepository.findById(id).orElseThrow(() -> new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
                 "Todo not found with id: " + id
         ));
+        // Checkbox toggle: เก็บไว้ใน write-behind buffer แล้วตอบสถานะที่จะถูกเขียน (ไม่มี UPDATE ใน request นี้)
+        if (toggleOnly && completionWriteBehind.offer(id, request.getCompleted())) {
+            return withPending(todo);
+        }
+        // If-Match: client แก้จาก version เก่า → ปฏิเสธแทนที่จะเขียนทับ (lost update) โดยไม่ต้อง lock แถว
+        if (expectedVersion != null && expectedVersion != todo.getVersion()) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Todo " + id + " has been modified (current version " + todo.getVersion() + ")");
+        }
         if (request.getTitle() != null) {
             todo.setTitle(request.getTitle());
         }
-        if (request.getCompleted() != null) {
+        if (request.getCompleted() != null && request.getCompleted() != todo.isCompleted()) {
             todo.setCompleted(request.getCompleted());
+            todoStatsService.recordCompletionChanged(todo.isCompleted(), 1);
+        } else {
+            todoStatsService.recordUpdated(1);
         }
 
         todo.setUpdatedAt(LocalDateTime.now());
 
-        return todoRepository.save(todo);
+        Todo saved = todoRepository.save(todo);
+        eventPublisher.publishEvent(TodoChangedEvent.updated(toResponse(saved)));
+        return saved;
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TODO_BY_ID, CacheConfig.TODO_PAGES}, allEntries = true)
+    public int updateCompletion(BulkCompletionRequest request) {
+        boolean byIds = request.getIds() != null;
+        boolean byDate = request.getCreatedBefore() != null;
+        if (byIds == byDate) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Specify exactly one of ids or createdBefore");
+        }
+        completionWriteBehind.flushAll();
+        int affected = writeTransaction.execute(status -> {
+            int updated = byIds
+                    ? todoRepository.updateCompletedByIdIn(request.getIds(), request.isCompleted(), LocalDateTime.now())
+                    : todoRepository.updateCompletedByCreatedAtBefore(
+                            request.getCreatedBefore(), request.isCompleted(), LocalDateTime.now());
+            todoStatsService.recordCompletionChanged(request.isCompleted(), updated);
+            eventPublisher.publishEvent(byIds
+                    ? TodoChangedEvent.updated(request.getIds())
+                    : TodoChangedEvent.bulk(TodoChangedEvent.Type.UPDATED));
+            return updated;
+        });
+        log.info("Bulk completion set completed={} on {} todos", request.isCompleted(), affected);
+        return affected;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TODO_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TODO_PAGES, allEntries = true)
+    })
     public void deleteTodo(Long id) {
         // validate เฉพาะ business logic,  ไม่ใช่ input format
-        if (!todoRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND,  "Todo not found with id: " + id);
+        completionWriteBehind.flush(List.of(id));
+        writeTransaction.executeWithoutResult(status -> {
+            List<Boolean> deleted = todoDeleter.deleteById(id, LocalDateTime.now());
+            if (deleted.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND,  "Todo not found with id: " + id);
+            }
+            recordDeleted(deleted);
+            eventPublisher.publishEvent(TodoChangedEvent.deleted(List.of(id)));
+        });
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TODO_BY_ID, CacheConfig.TODO_PAGES}, allEntries = true)
+    public int deleteTodos(List<Long> ids, Boolean completed) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        if (byIds == (completed != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Specify exactly one of ids or completed");
+        }
+        if (byIds && ids.size() > MAX_BULK_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "ids must contain at most " + MAX_BULK_IDS + " items");
         }
-        todoRepository.deleteById(id);
+        if (byIds) {
+            completionWriteBehind.flush(ids);
+        } else {
+            completionWriteBehind.flushAll();
+        }
+        int affected = writeTransaction.execute(status -> byIds ? deleteByIds(ids) : deleteByCompleted(completed));
+        log.info("Bulk delete removed {} todos", affected);
+        return affected;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TODO_PAGES, key = "'completed:' + #completed + ':' + #cursor + ':' + #limit")
+    public CursorPage<TodoResponse> getTodosByCompletion(boolean completed, String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        TodoCursor after = decodeCursor(cursor);
+        // filter ตาม completed ต้องเห็น toggle ที่ค้างอยู่ด้วย: overlay ทำไม่ได้ (แถวจะย้ายข้ามหน้า) จึง flush ก่อน
+        completionWriteBehind.flushAll();
+        return readOnlyTransaction.execute(status -> {
+            String version = collectionVersion();
+            List<TodoResponse> todos = after == null
+                    ? todoRepository.findFirstPageByCompleted(completed, page)
+                    : todoRepository.findPageByCompletedAfter(completed, after.getCreatedAt(), after.getId(), page);
+            return toPage(todos, limit, version);
+        });
     }
 
-    public List<Todo> getTodosByCompletion(boolean completed) {
-        List<Todo> todos =  todoRepository.findByCompleted(completed);
-        return todos;
+    @Cacheable(cacheNames = CacheConfig.TODO_PAGES,
+            key = "'completed+archived:' + #completed + ':' + #cursor + ':' + #limit")
+    public CursorPage<TodoResponse> getTodosByCompletionIncludingArchived(boolean completed, String cursor, int limit) {
+        Pageable page = pageOf(limit);
+        TodoCursor after = decodeCursor(cursor);
+        completionWriteBehind.flushAll();
+        return readOnlyTransaction.execute(status -> {
+            String version = collectionVersion();
+            List<TodoResponse> hot = after == null
+                    ? todoRepository.findFirstPageByCompleted(completed, page)
+                    : todoRepository.findPageByCompletedAfter(completed, after.getCreatedAt(), after.getId(), page);
+            List<TodoResponse> archived = after == null
+                    ? archivedTodoRepository.findFirstPageByCompleted(completed, page)
+                    : archivedTodoRepository.findPageByCompletedAfter(completed, after.getCreatedAt(), after.getId(), page);
+            return toPage(merge(hot, archived, limit + 1), limit, version);
+        });
+    }
+
+    /**
+     * Moves one batch of todos completed before {@code completedBefore} to todos_archive (see
+     * {@link ArchivedTodoRepository#archiveCompletedBefore}). Called by {@link TodoArchiver}, one short
+     * transaction per batch. Returns the number of todos moved.
+     * <p>
+     * Todos with a toggle still in the write-behind buffer are skipped: the later flush would update a row
+     * that is no longer in todos and the toggle would be lost. A toggle that lands on a todo of the batch
+     * while the statement runs rolls the batch back; the next run archives it once the toggle is written.
+     */
+    @CacheEvict(cacheNames = {CacheConfig.TODO_BY_ID, CacheConfig.TODO_PAGES}, allEntries = true, condition = "#result > 0")
+    public int archiveCompleted(LocalDateTime completedBefore, int batchSize) {
+        // toggle ที่ค้างอยู่ต้องลง database ก่อน: ถ้าแถวถูกย้ายไปแล้ว flush จะ update ไม่เจอแถว
+        completionWriteBehind.flushAll();
+        List<Long> ids = writeTransaction.execute(status -> {
+            List<Long> archived = archivedTodoRepository.archiveCompletedBefore(
+                    completedBefore, batchSize, excludedFromArchive(), LocalDateTime.now());
+            if (archived.stream().anyMatch(id -> completionWriteBehind.pendingFor(id).isPresent())) {
+                log.debug("Archive batch rolled back: a todo in it was toggled meanwhile");
+                status.setRollbackOnly();
+                return List.<Long>of();
+            }
+            if (!archived.isEmpty()) {
+                // open/completed ไม่เปลี่ยน (archive ยังนับใน stats) แต่ list เปลี่ยน จึงเพิ่ม change counter ให้ ETag
+                todoStatsService.recordUpdated(archived.size());
+                eventPublisher.publishEvent(TodoChangedEvent.archived(archived));
+            }
+            return archived;
+        });
+        return ids.size();
+    }
+
+    // id มาจาก sequence ที่เริ่มที่ 1: -1 ใช้แทน list ว่างได้
+    private Collection<Long> excludedFromArchive() {
+        Set<Long> pending = completionWriteBehind.pendingIds();
+        return pending.isEmpty() ? List.of(-1L) : pending;
+    }
+
+    // ค่าเปลี่ยนทุกครั้งที่มีการเขียน ใช้ทำ collection ETag โดยไม่ต้อง serialize list
+    // อ่านก่อนข้อมูลใน transaction เดียวกัน: ถ้ามี commit แทรกระหว่างนั้น ETag จะเก่ากว่าข้อมูล (ไม่ใช่ใหม่กว่า)
+    // client จึงได้แค่ 200 ซ้ำอีกครั้ง ไม่มีทางได้ 304 ค้างกับข้อมูลเก่า
+    // change counter อยู่ใน database: เท่ากันทุก instance และไม่เริ่มใหม่ตอน restart
+    // toggle ที่ค้างใน buffer เป็นของ instance นี้เท่านั้น จึงต่อ fingerprint ท้ายไว้ (ไม่บวกรวมเข้า counter)
+    private String collectionVersion() {
+        long changeCount = todoStatsService.getChangeCount();
+        long pending = completionWriteBehind.pendingFingerprint();
+        return pending == 0 ? Long.toString(changeCount) : changeCount + "." + Long.toHexString(pending);
+    }
+
+    // อ่านต้องเห็น toggle ที่ยังอยู่ใน write-behind buffer; version คาดตามที่ flush จะเพิ่มให้ (+1 เมื่อค่าเปลี่ยนจริง)
+    private Todo withPending(Todo todo) {
+        return completionWriteBehind.pendingFor(todo.getId())
+                .filter(pending -> pending.completed() != todo.isCompleted())
+                .map(pending -> new Todo(todo.getId(), todo.getTitle(), pending.completed(), todo.getCreatedAt(),
+                        pending.requestedAt(), todo.getVersion() + 1))
+                .orElse(todo);
+    }
+
+    private List<TodoResponse> withPending(List<TodoResponse> todos) {
+        if (!completionWriteBehind.hasPending()) {
+            return todos;
+        }
+        return todos.stream()
+                .map(todo -> completionWriteBehind.pendingFor(todo.getId())
+                        .filter(pending -> pending.completed() != todo.isCompleted())
+                        .map(pending -> new TodoResponse(todo.getId(), todo.getTitle(), pending.completed(),
+                                todo.getCreatedAt(), pending.requestedAt()))
+                        .orElse(todo))
+                .toList();
+    }
+
+    // ทั้งสองรายการเรียงตาม (createdAt, id) อยู่แล้ว
+    static List<TodoResponse> merge(List<TodoResponse> hot, List<TodoResponse> archived, int max) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<TodoResponse> merged = new ArrayList<>(Math.min(max, hot.size() + archived.size()));
+        int h = 0;
+        int a = 0;
+        while (merged.size() < max && (h < hot.size() || a < archived.size())) {
+            if (a >= archived.size() || (h < hot.size() && PAGE_ORDER.compare(hot.get(h), archived.get(a)) <= 0)) {
+                merged.add(hot.get(h++));
+            } else {
+                merged.add(archived.get(a++));
+            }
+        }
+        return merged;
+    }
+
+    private static Todo snapshot(Todo todo) {
+        return new Todo(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getCreatedAt(),
+                todo.getUpdatedAt(), todo.getVersion());
+    }
+
+    // mapping เดียวที่ทั้ง controller, event และ TodoMappingBenchmark ใช้
+    public static TodoResponse toResponse(Todo todo) {
+        return new TodoResponse(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getCreatedAt(), todo.getUpdatedAt());
+    }
+
+    private int deleteByIds(List<Long> ids) {
+        List<TodoRepository.DeletedTodo> deleted = todoDeleter.deleteByIdIn(ids, LocalDateTime.now());
+        recordDeleted(deleted.stream().map(TodoRepository.DeletedTodo::getCompleted).toList());
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(TodoChangedEvent.deleted(
+                    deleted.stream().map(TodoRepository.DeletedTodo::getId).toList()));
+        }
+        return deleted.size();
+    }
+
+    private int deleteByCompleted(boolean completed) {
+        int affected = todoDeleter.deleteByCompleted(completed, LocalDateTime.now());
+        todoStatsService.recordDeleted(completed ? 0 : affected, completed ? affected : 0);
+        eventPublisher.publishEvent(TodoChangedEvent.bulk(TodoChangedEvent.Type.DELETED));
+        return affected;
+    }
+
+    private void recordDeleted(List<Boolean> deletedCompletedFlags) {
+        long completed = deletedCompletedFlags.stream().filter(Boolean::booleanValue).count();
+        todoStatsService.recordDeleted(deletedCompletedFlags.size() - completed, completed);
+    }
+
+    // ดึงเกินมา 1 แถวเพื่อรู้ว่ายังมีหน้าถัดไปหรือไม่ โดยไม่ต้อง count ทั้งตาราง
+    private Pageable pageOf(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.ofSize(limit + 1);
+    }
+
+    private TodoCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return TodoCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private CursorPage<TodoResponse> toPage(List<TodoResponse> todos, int limit, String version) {
+        if (todos.size() <= limit) {
+            return new CursorPage<>(todos, null, version);
+        }
+        List<TodoResponse> items = todos.subList(0, limit);
+        TodoResponse last = items.get(limit - 1);
+        return new CursorPage<>(items, new TodoCursor(last.getCreatedAt(), last.getId()).encode(), version);
     }
 }
@@ -0,0 +1,135 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoStatsResponse;
+import com.bannakon.zentasks.repository.TodoDailyStatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Keeps todo_daily_stats in step with writes to todos. The record* methods must run inside the
+ * caller's write transaction so the counters commit (or roll back) together with the row change.
+ * <p>
+ * That row stays locked until the caller commits, so each day is split into {@link #STRIPES} rows
+ * and a transaction updates the stripe of its thread: concurrent writers (bulk inserts, archive batches,
+ * toggles) only queue behind the few that share a stripe. A transaction always touches one stripe, so
+ * two writers can't deadlock on each other's stat rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TodoStatsService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int STRIPES = 16;
+
+    private final TodoDailyStatRepository statRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(long open, long completed) {
+        apply(open + completed, completed, 0, 0, open, completed, open + completed);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompletionChanged(boolean completed, long count) {
+        if (completed) {
+            apply(0, count, 0, 0, -count, count, count);
+        } else {
+            apply(0, 0, count, 0, count, -count, count);
+        }
+    }
+
+    // การแก้ไขที่ไม่กระทบ open/completed (เช่นแก้ title) นับเฉพาะ change counter
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpdated(long count) {
+        apply(0, 0, 0, 0, 0, 0, count);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(long open, long completed) {
+        apply(0, 0, 0, open + completed, -open, -completed, open + completed);
+    }
+
+    /**
+     * Monotonic count of committed writes to todos. Bumped in the same transaction as each write,
+     * so a reader never sees new data paired with an old counter value.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCount() {
+        return statRepository.sumChangeCount();
+    }
+
+    @Transactional(readOnly = true)
+    public TodoStatsResponse getStats(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Date range must be ordered and span at most " + MAX_RANGE_DAYS + " days");
+        }
+        TodoDailyStatRepository.Totals totals = statRepository.sumTotals();
+        long open = totals.getOpenCount();
+        long completed = totals.getCompletedCount();
+
+        List<TodoStatsResponse.DailyRollup> daily = statRepository.sumDaysBetween(from, to)
+                .stream()
+                .map(day -> new TodoStatsResponse.DailyRollup(
+                        day.getStatDate(),
+                        day.getCreatedCount(),
+                        day.getCompletedCount(),
+                        day.getReopenedCount(),
+                        day.getDeletedCount()
+                ))
+                .toList();
+
+        return new TodoStatsResponse(open, completed, open + completed, daily);
+    }
+
+    /**
+     * Replaces every stat row with counts derived from todos and todos_archive, for when the counters
+     * drift from the data (e.g. after editing rows directly in the database). Operator-only: exposed
+     * through the {@code todostats} actuator endpoint, never the public API.
+     * <p>
+     * The table is locked first, so a write transaction either commits before the recount reads todos
+     * or increments the new rows after it. Readers keep seeing the old rows until the swap commits.
+     */
+    @Transactional
+    public int rebuild() {
+        statRepository.lockAllStats();
+        // change counter ต้องไม่ย้อนกลับ ไม่งั้น ETag เก่าที่ client ถืออยู่อาจตรงกันโดยบังเอิญ
+        long changes = statRepository.sumChangeCount();
+        statRepository.deleteAllStats();
+        int rows = statRepository.rebuildFromTodos(STRIPES);
+        apply(0, 0, 0, 0, 0, 0, changes + 1);
+        log.info("Rebuilt todo statistics ({} rows)", rows);
+        return rows;
+    }
+
+    private void apply(long created, long completed, long reopened, long deleted,
+                       long openDelta, long completedDelta, long changes) {
+        if (changes == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        int stripe = stripe();
+        if (statRepository.increment(today, stripe, created, completed, reopened, deleted, openDelta, completedDelta, changes) == 0) {
+            statRepository.insertEmptyDay(today, stripe);
+            if (statRepository.increment(today, stripe, created, completed, reopened, deleted, openDelta, completedDelta, changes) == 0) {
+                // ตารางเดิมที่ SchemaUpgrade ยังไม่เปลี่ยน primary key มีได้แถวเดียวต่อวัน: ลง stripe 0
+                statRepository.insertEmptyDay(today, 0);
+                statRepository.increment(today, 0, created, completed, reopened, deleted, openDelta, completedDelta, changes);
+            }
+        }
+    }
+
+    // transaction ผูกกับ thread จึงได้ stripe เดียวตลอดทั้ง transaction
+    static int stripe() {
+        return (int) (Thread.currentThread().threadId() % STRIPES);
+    }
+}
@@ -0,0 +1,147 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.datasource.ReplicaRouting;
+import com.bannakon.zentasks.dto.SyncToken;
+import com.bannakon.zentasks.dto.TodoChangesResponse;
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.entity.TodoTombstone;
+import com.bannakon.zentasks.repository.TodoRepository;
+import com.bannakon.zentasks.repository.TodoTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync for offline clients: rows changed and ids deleted since the client's {@link SyncToken}.
+ * <p>
+ * Timestamps are assigned when a write starts but become visible when it commits, so a row stamped T can
+ * appear after rows stamped later than T. Only changes older than the horizon ({@code now - commit-lag}) are
+ * returned; anything newer waits for the next call. Positions therefore only move forward and a client sees
+ * every change exactly once, as long as no write transaction runs longer than {@code zentasks.sync.commit-lag}.
+ * Every {@code updatedAt} and tombstone {@code deletedAt} is stamped from the application clock, the same clock
+ * the horizon is computed from (bulk statements take it as a parameter instead of {@code CURRENT_TIMESTAMP},
+ * which is the transaction start on another machine); the commit lag only has to absorb skew between app
+ * instances, which NTP keeps far below it. Reads always go to the primary:
+ * a replica lagging more than the commit lag would hide rows stamped before the horizon, and the token
+ * would move past them for good.
+ * <p>
+ * Tombstones are kept for {@code zentasks.sync.tombstone-retention}; a token older than that gets 410 Gone
+ * and the client must start over without a token.
+ */
+@Slf4j
+@Service
+public class TodoSyncService {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TodoRepository todoRepository;
+    private final TodoTombstoneRepository tombstoneRepository;
+    private final CompletionWriteBehind completionWriteBehind;
+    private final Duration commitLag;
+    private final Duration tombstoneRetention;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TodoSyncService(TodoRepository todoRepository, TodoTombstoneRepository tombstoneRepository,
+                           CompletionWriteBehind completionWriteBehind, PlatformTransactionManager transactionManager,
+                           @Value("${zentasks.sync.commit-lag:5s}") Duration commitLag,
+                           @Value("${zentasks.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.todoRepository = todoRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.completionWriteBehind = completionWriteBehind;
+        this.commitLag = commitLag;
+        this.tombstoneRetention = tombstoneRetention;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public TodoChangesResponse getChanges(String since, int limit) {
+        if (limit < 1 || limit > TodoService.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + TodoService.MAX_PAGE_SIZE);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.minus(commitLag);
+        SyncToken position = decode(since, horizon);
+        if (position.getDeletedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Sync token is older than the tombstone retention, sync again without a token");
+        }
+        // toggle ที่ค้างใน write-behind ต้องลง database ก่อน ไม่อย่างนั้นจะไม่มี updatedAt ให้ query เจอ
+        // (ก่อนเปิด transaction อ่าน: flush ใช้ connection ของตัวเอง)
+        completionWriteBehind.flushAll();
+        return ReplicaRouting.onPrimary(
+                () -> readOnlyTransaction.execute(status -> readChanges(position, horizon, limit)));
+    }
+
+    private TodoChangesResponse readChanges(SyncToken position, LocalDateTime horizon, int limit) {
+        PageRequest page = PageRequest.ofSize(limit + 1);
+        List<TodoResponse> changed = todoRepository.findChangedAfter(
+                position.getChangedAt(), position.getChangedId(), horizon, page);
+        List<TodoTombstone> deleted = tombstoneRepository.findDeletedAfter(
+                position.getDeletedAt(), position.getDeletedId(), horizon, page);
+        boolean moreChanged = changed.size() > limit;
+        boolean moreDeleted = deleted.size() > limit;
+        if (moreChanged) {
+            changed = changed.subList(0, limit);
+        }
+        if (moreDeleted) {
+            deleted = deleted.subList(0, limit);
+        }
+
+        // ตามทันแล้ว: เลื่อนไปที่ horizon เลย (ไม่มีอะไรที่ stamp ก่อน horizon จะ commit ตามมาอีก)
+        // แต่ไม่ถอยหลัง ถ้า token มาจาก instance ที่นาฬิกาเดินเร็วกว่า
+        LocalDateTime changedAt = latest(position.getChangedAt(), horizon);
+        Long changedId = changedAt.equals(position.getChangedAt()) ? position.getChangedId() : 0L;
+        if (moreChanged) {
+            TodoResponse last = changed.get(limit - 1);
+            changedAt = last.getUpdatedAt();
+            changedId = last.getId();
+        }
+        LocalDateTime deletedAt = latest(position.getDeletedAt(), horizon);
+        Long deletedId = deletedAt.equals(position.getDeletedAt()) ? position.getDeletedId() : 0L;
+        if (moreDeleted) {
+            TodoTombstone last = deleted.get(limit - 1);
+            deletedAt = last.getDeletedAt();
+            deletedId = last.getTodoId();
+        }
+        SyncToken next = new SyncToken(changedAt, changedId, deletedAt, deletedId);
+        return new TodoChangesResponse(changed, deleted.stream().map(TodoTombstone::getTodoId).toList(),
+                next.encode(), moreChanged || moreDeleted);
+    }
+
+    @Transactional
+    @Scheduled(cron = "${zentasks.sync.purge-cron:0 15 * * * *}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    // sync ครั้งแรก: ส่งทุกแถวที่มีอยู่ แต่ไม่ต้องส่ง tombstone ที่เกิดก่อนหน้านี้ (client ยังไม่มีข้อมูลนั้น)
+    private SyncToken decode(String since, LocalDateTime horizon) {
+        if (since == null || since.isBlank()) {
+            return new SyncToken(BEGINNING, 0L, horizon, 0L);
+        }
+        try {
+            return SyncToken.decode(since);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+        }
+    }
+}
@@ -1,3 +1,3 @@
-INSERT INTO todos (title, completed) VALUES ('Buy groceries', false);
-INSERT INTO todos (title, completed) VALUES ('Study Spring Boot', false);
-INSERT INTO todos (title, completed) VALUES ('Complete project', true);
+INSERT INTO todos (title, completed, created_at, updated_at) VALUES ('Buy groceries', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO todos (title, completed, created_at, updated_at) VALUES ('Study Spring Boot', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO todos (title, completed, created_at, updated_at) VALUES ('Complete project', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
@@ -0,0 +1,40 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.entity.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Todos seeded through {@link TodoService} for the JMH benchmarks and the HTTP load test, so both measure
+ * the same data set. {@code middleCursor} points at the middle of the table, for "deep page" reads.
+ */
+public record SeededTodos(long minId, long maxId, String middleCursor) {
+
+    private static final int CHUNK = 1_000;
+
+    public static SeededTodos seed(TodoService todoService, long rows) {
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        for (long seeded = 0; seeded < rows; seeded += CHUNK) {
+            List<TodoRequest> chunk = new ArrayList<>(CHUNK);
+            for (long i = seeded; i < Math.min(rows, seeded + CHUNK); i++) {
+                TodoRequest request = new TodoRequest();
+                request.setTitle("Todo number " + i + " with a realistic title");
+                request.setCompleted(i % 3 == 0);
+                chunk.add(request);
+            }
+            for (Todo todo : todoService.createDataTodos(chunk)) {
+                minId = Math.min(minId, todo.getId());
+                maxId = Math.max(maxId, todo.getId());
+            }
+        }
+
+        String middleCursor = null;
+        for (long read = 0; read < rows / 2; read += TodoService.MAX_PAGE_SIZE) {
+            middleCursor = todoService.getAllDataTodos(middleCursor, TodoService.MAX_PAGE_SIZE).getNext();
+        }
+        return new SeededTodos(minId, maxId, middleCursor);
+    }
+}
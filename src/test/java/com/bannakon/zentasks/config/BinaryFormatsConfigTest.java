@@ -0,0 +1,54 @@
+package com.bannakon.zentasks.config;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFormatsConfigTest {
+
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+
+    @Test
+    void cbor_writesTimestampsAsEpochMillisAndRoundTrips() throws Exception {
+        // Arrange
+        ObjectMapper cbor = config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 9, 30, 15, 123_000_000);
+        TodoResponse todo = new TodoResponse(7L, "Write report", true, createdAt, createdAt.plusHours(1));
+
+        // Act
+        byte[] encoded = cbor.writeValueAsBytes(todo);
+        JsonNode tree = cbor.readTree(encoded);
+        TodoResponse decoded = cbor.readValue(encoded, TodoResponse.class);
+
+        // Assert
+        assertThat(tree.get("createdAt").isIntegralNumber()).isTrue();
+        assertThat(tree.get("createdAt").asLong())
+                .isEqualTo(createdAt.atZone(BinaryFormatsConfig.ZONE).toInstant().toEpochMilli());
+        assertThat(decoded).isEqualTo(todo);
+    }
+
+    @Test
+    void smile_isSmallerThanJsonForTheSameList() throws Exception {
+        // Arrange
+        ObjectMapper smile = config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper();
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        TodoResponse[] todos = new TodoResponse[50];
+        for (int i = 0; i < todos.length; i++) {
+            todos[i] = new TodoResponse((long) i, "Todo " + i, false, now, now);
+        }
+
+        // Act
+        int smileBytes = smile.writeValueAsBytes(todos).length;
+        int jsonBytes = json.writeValueAsBytes(todos).length;
+
+        // Assert
+        assertThat(smileBytes).isLessThan(jsonBytes);
+    }
+}
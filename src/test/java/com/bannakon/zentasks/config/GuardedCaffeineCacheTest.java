@@ -0,0 +1,91 @@
+package com.bannakon.zentasks.config;
+
+import com.bannakon.zentasks.datasource.ReplicaRouting;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GuardedCaffeineCacheTest {
+
+    private GuardedCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GuardedCaffeineCache("todoPages", Caffeine.newBuilder().build(), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    void put_afterMiss_isCached() {
+        // Act
+        assertThat(cache.get("all:null:50")).isNull();
+        cache.put("all:null:50", "page");
+
+        // Assert
+        assertThat(cache.get("all:null:50", String.class)).isEqualTo("page");
+    }
+
+    @Test
+    void put_afterEvictDuringLoad_isDropped() {
+        // Arrange: miss แล้ว write อื่น commit + evict ระหว่างที่กำลังโหลด
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(1L);
+
+        // Act
+        cache.put(1L, "pre-commit snapshot");
+
+        // Assert
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void put_afterClearDuringLoad_isDropped() {
+        // Arrange
+        assertThat(cache.get("completed:true:null:50")).isNull();
+        cache.clear();
+
+        // Act
+        cache.put("completed:true:null:50", "stale page");
+
+        // Assert
+        assertThat(cache.get("completed:true:null:50")).isNull();
+    }
+
+    @Test
+    void nextLoad_afterDroppedPut_isCached() {
+        // Arrange
+        assertThat(cache.get(1L)).isNull();
+        cache.evict(1L);
+        cache.put(1L, "stale");
+
+        // Act
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "fresh");
+
+        // Assert
+        assertThat(cache.get(1L, String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    void lookup_insideReadYourWritesWindow_missesAndPutRefreshesEntry() {
+        // Arrange
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "before my write");
+        ReplicaRouting.usePrimary();
+
+        // Act
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "read from primary");
+        ReplicaRouting.clear();
+
+        // Assert
+        assertThat(cache.get(1L, String.class)).isEqualTo("read from primary");
+    }
+}
@@ -0,0 +1,126 @@
+package com.bannakon.zentasks.config;
+
+import com.bannakon.zentasks.entity.Todo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// ตาราง todos แบบ baseline (created_at ยัง nullable) บน H2
+class SchemaUpgradeTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SchemaUpgrade schemaUpgrade;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-upgrade;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("drop table if exists todos");
+        jdbcTemplate.execute("create table todos (id bigint primary key, title varchar(255), " +
+                "completed boolean not null, created_at timestamp, updated_at timestamp)");
+        jdbcTemplate.execute("drop table if exists todos_archive");
+        jdbcTemplate.execute("create table todos_archive (id bigint primary key)");
+        jdbcTemplate.execute("drop sequence if exists todos_seq");
+        schemaUpgrade = new SchemaUpgrade(jdbcTemplate);
+    }
+
+    @Test
+    void backfillCreatedAt_fillsNullsFromUpdatedAtAndAddsNotNull() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 3, 1, 8, 0);
+        jdbcTemplate.update("insert into todos values (1, 'legacy', false, null, ?)", updatedAt);
+        jdbcTemplate.update("insert into todos values (2, 'no timestamps', false, null, null)");
+
+        // Act
+        schemaUpgrade.backfillCreatedAt();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("select created_at from todos where id = 1", LocalDateTime.class))
+                .isEqualTo(updatedAt);
+        assertThat(jdbcTemplate.queryForObject("select created_at from todos where id = 2", LocalDateTime.class))
+                .isNotNull();
+        assertThatThrownBy(() -> jdbcTemplate.update("insert into todos values (3, 'new', false, null, null)"))
+                .hasMessageContaining("NULL");
+    }
+
+    @Test
+    void backfillCreatedAt_isIdempotent() {
+        // Arrange
+        schemaUpgrade.backfillCreatedAt();
+
+        // Act
+        schemaUpgrade.backfillCreatedAt();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("select count(*) from todos", Integer.class)).isZero();
+    }
+
+    @Test
+    void backfillUpdatedAt_fillsNullsFromCreatedAt() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 8, 0);
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 4, 1, 8, 0);
+        jdbcTemplate.update("insert into todos values (1, 'legacy', false, ?, null)", createdAt);
+        jdbcTemplate.update("insert into todos values (2, 'edited', false, ?, ?)", createdAt, updatedAt);
+
+        // Act
+        schemaUpgrade.backfillUpdatedAt();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("select updated_at from todos where id = 1", LocalDateTime.class))
+                .isEqualTo(createdAt);
+        assertThat(jdbcTemplate.queryForObject("select updated_at from todos where id = 2", LocalDateTime.class))
+                .isEqualTo(updatedAt);
+    }
+
+    @Test
+    void advanceTodoSequence_movesFreshSequencePastExistingIds() {
+        // Arrange: ฐานข้อมูลจาก baseline (IDENTITY) ที่ ddl-auto เพิ่งสร้าง todos_seq ให้
+        jdbcTemplate.execute("create sequence todos_seq start with 1 increment by 50");
+        jdbcTemplate.update("insert into todos values (120, 'legacy', false, localtimestamp, null)");
+        jdbcTemplate.update("insert into todos_archive (id) values (130)");
+
+        // Act
+        schemaUpgrade.advanceTodoSequence();
+
+        // Assert: block ถัดไปของ pooled optimizer คือ (ค่า - 50, ค่า] ต้องอยู่เหนือ id ที่มีอยู่ทั้งหมด
+        long next = jdbcTemplate.queryForObject("select nextval('todos_seq')", Long.class);
+        assertThat(next - Todo.ID_ALLOCATION_SIZE).isGreaterThanOrEqualTo(130);
+    }
+
+    @Test
+    void advanceTodoSequence_neverMovesSequenceBack() {
+        // Arrange
+        jdbcTemplate.execute("create sequence todos_seq start with 1000 increment by 50");
+        jdbcTemplate.update("insert into todos values (120, 'legacy', false, localtimestamp, null)");
+
+        // Act
+        schemaUpgrade.advanceTodoSequence();
+        schemaUpgrade.advanceTodoSequence();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("select nextval('todos_seq')", Long.class)).isGreaterThan(1000);
+    }
+
+    @Test
+    void stripeDailyStats_leavesStripedPrimaryKeyAlone() {
+        // Arrange
+        jdbcTemplate.execute("drop table if exists todo_daily_stats");
+        jdbcTemplate.execute("create table todo_daily_stats (stat_date date not null, stripe integer default 0 not null, " +
+                "change_count bigint default 0 not null, primary key (stat_date, stripe))");
+
+        // Act
+        schemaUpgrade.stripeDailyStats();
+
+        // Assert
+        jdbcTemplate.update("insert into todo_daily_stats (stat_date, stripe) values (date '2026-01-01', 0)");
+        jdbcTemplate.update("insert into todo_daily_stats (stat_date, stripe) values (date '2026-01-01', 1)");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from todo_daily_stats", Integer.class)).isEqualTo(2);
+    }
+}
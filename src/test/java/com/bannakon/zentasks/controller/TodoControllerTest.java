@@ -1,8 +1,12 @@
 package com.bannakon.zentasks.controller;
 
+import com.bannakon.zentasks.dto.BulkCompletionRequest;
+import com.bannakon.zentasks.dto.CursorPage;
 import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.TodoResponse;
 import com.bannakon.zentasks.dto.UpdateTodoRequest;
 import com.bannakon.zentasks.entity.Todo;
+import com.bannakon.zentasks.service.TodoExportService;
 import com.bannakon.zentasks.service.TodoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -11,17 +15,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.server.ResponseStatusException;
 
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 // ใช้ @WebMvcTest เพื่อโหลดเฉพาะชั้น Controller ไม่โหลด Bean ทั้งระบบ Spring Boot
@@ -37,6 +50,9 @@ class TodoControllerTest {
     @MockitoBean
     private TodoService todoService;
 
+    @MockitoBean
+    private TodoExportService todoExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,9 +61,10 @@ class TodoControllerTest {
     void shouldReturnAllTodos() throws Exception {
         // Arrange
         LocalDateTime now = LocalDateTime.now();
-        Todo todo1 = new Todo(1L, "Task 1", false, now, now);
-        Todo todo2 = new Todo(2L, "Task 2", true, now, now);
-        when(todoService.getAllDataTodos()).thenReturn(List.of(todo1, todo2));
+        TodoResponse todo1 = new TodoResponse(1L, "Task 1", false, now, now);
+        TodoResponse todo2 = new TodoResponse(2L, "Task 2", true, now, now);
+        when(todoService.getAllDataTodos(null, TodoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(todo1, todo2), null, "1"));
 
         // Act & Assert
         mockMvc.perform(get("/api/todos"))
@@ -61,15 +78,88 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$[0].updatedAt").exists())
                 .andExpect(jsonPath("$[1].id").value(2))
                 .andExpect(jsonPath("$[1].title").value("Task 2"))
-                .andExpect(jsonPath("$[1].completed").value(true));
+                .andExpect(jsonPath("$[1].completed").value(true))
+                .andExpect(header().doesNotExist(TodoController.NEXT_CURSOR_HEADER));
+
+        verify(todoService).getAllDataTodos(null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMorePagesExist() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        TodoResponse todo1 = new TodoResponse(1L, "Task 1", false, now, now);
+        when(todoService.getAllDataTodos("abc", 1)).thenReturn(new CursorPage<>(List.of(todo1), "next-token", "1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(TodoController.NEXT_CURSOR_HEADER, "next-token"))
+                .andExpect(header().string("Link", containsString("cursor=next-token")));
+    }
+
+    @Test
+    void shouldReturn304WhenCollectionUnchanged() throws Exception {
+        // Arrange
+        CursorPage<TodoResponse> page = new CursorPage<>(List.of(), null, "42");
+        when(todoService.getAllDataTodos(null, TodoService.DEFAULT_PAGE_SIZE)).thenReturn(page);
+        String etag = TodoEtags.ofPage(page, null, null, TodoService.DEFAULT_PAGE_SIZE, false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/api/todos").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldTagEachPageAndFilterSeparately() throws Exception {
+        // Arrange
+        CursorPage<TodoResponse> page = new CursorPage<>(List.of(), null, "42");
+        when(todoService.getTodosByCompletion(true, null, 10)).thenReturn(page);
+        String allTag = TodoEtags.ofPage(page, null, null, 10, false);
+
+        // Act & Assert: version เดียวกันแต่คนละ query ต้องไม่ได้ 304
+        mockMvc.perform(get("/api/todos/filter").param("completed", "true").param("limit", "10")
+                        .header("If-None-Match", allTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldReturn304WhenTodoUnchanged() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(todoService.getTodo(1L)).thenReturn(new Todo(1L, "Task 1", false, now, now, 7L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/1").header("If-None-Match", "\"1-7\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldTagEachEncodingOfTodoSeparately() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(todoService.getTodo(1L)).thenReturn(new Todo(1L, "Task 1", false, now, now, 7L));
 
-        verify(todoService).getAllDataTodos();
+        // Act & Assert: CBOR เป็นคนละ representation กับ JSON → tag ต่างกัน และ cache ต้องแยกตาม Accept
+        mockMvc.perform(get("/api/todos/1").header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-7-cbor\""))
+                .andExpect(header().string("Vary", containsString("Accept")));
+        mockMvc.perform(get("/api/todos/1").header("Accept", "application/cbor").header("If-None-Match", "\"1-7\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/1").header("Accept", "application/cbor").header("If-None-Match", "\"1-7-cbor\""))
+                .andExpect(status().isNotModified());
     }
 
     @Test
     void shouldReturnEmptyListWhenNoTodos() throws Exception {
         // Arrange
-        when(todoService.getAllDataTodos()).thenReturn(List.of());
+        when(todoService.getAllDataTodos(null, TodoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(), null, "1"));
 
         // Act & Assert
         mockMvc.perform(get("/api/todos"))
@@ -78,6 +168,21 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void shouldReturnTodoById() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(todoService.getTodo(1L)).thenReturn(new Todo(1L, "Task 1", false, now, now));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.title").value("Task 1"));
+
+        verify(todoService).getTodo(1L);
+    }
+
     @Test
     void shouldCreateTodo() throws Exception {
         // Arrange
@@ -103,6 +208,42 @@ class TodoControllerTest {
         verify(todoService).createDataTodo(any(TodoRequest.class));
     }
 
+    @Test
+    void shouldCreateValidItemsAndRejectInvalidOnesInBatch() throws Exception {
+        // Arrange
+        TodoRequest valid = new TodoRequest();
+        valid.setTitle("Valid Task");
+        TodoRequest invalid = new TodoRequest();
+        invalid.setTitle("");
+
+        LocalDateTime now = LocalDateTime.now();
+        when(todoService.createDataTodos(anyList())).thenReturn(List.of(new Todo(7L, "Valid Task", false, now, now)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(invalid, valid))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[0].validationErrors[0].field").value("title"))
+                .andExpect(jsonPath("$.results[1].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].todo.id").value(7));
+
+        verify(todoService).createDataTodos(List.of(valid));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).createDataTodos(anyList());
+    }
+
     @Test
     void shouldUpdateTodo() throws Exception {
         // Arrange
@@ -114,7 +255,7 @@ class TodoControllerTest {
         LocalDateTime updatedTime = LocalDateTime.now();
         Todo updated = new Todo(1L, "Updated Task", true, createdTime, updatedTime);
 
-        when(todoService.updateTodo(eq(1L), any(UpdateTodoRequest.class))).thenReturn(updated);
+        when(todoService.updateTodo(eq(1L), any(UpdateTodoRequest.class), isNull())).thenReturn(updated);
 
         // Act & Assert
         mockMvc.perform(put("/api/todos/1")
@@ -127,7 +268,50 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.createdAt").exists())
                 .andExpect(jsonPath("$.updatedAt").exists());
 
-        verify(todoService).updateTodo(eq(1L), any(UpdateTodoRequest.class));
+        verify(todoService).updateTodo(eq(1L), any(UpdateTodoRequest.class), isNull());
+    }
+
+    @Test
+    void shouldPassIfMatchVersionToService() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Todo updated = new Todo(1L, "Updated Task", true, now, now, 4L);
+        when(todoService.updateTodo(eq(1L), any(UpdateTodoRequest.class), eq(3L))).thenReturn(updated);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/todos/1")
+                        .header("If-Match", "\"1-3\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new UpdateTodoRequest(null, true))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    @Test
+    void shouldAcceptIfMatchFromAnyEncoding() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Todo updated = new Todo(1L, "Updated Task", true, now, now, 4L);
+        when(todoService.updateTodo(eq(1L), any(UpdateTodoRequest.class), eq(3L))).thenReturn(updated);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/todos/1")
+                        .header("If-Match", "\"1-3-smile\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new UpdateTodoRequest(null, true))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    @Test
+    void shouldReturn412WhenIfMatchIsForAnotherTodo() throws Exception {
+        mockMvc.perform(put("/api/todos/1")
+                        .header("If-Match", "\"2-3\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new UpdateTodoRequest(null, true))))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(todoService, never()).updateTodo(any(), any(), any());
     }
 
     @Test
@@ -136,7 +320,7 @@ class TodoControllerTest {
         UpdateTodoRequest request = new UpdateTodoRequest();
         request.setTitle("Updated Task");
 
-        when(todoService.updateTodo(eq(99L), any(UpdateTodoRequest.class)))
+        when(todoService.updateTodo(eq(99L), any(UpdateTodoRequest.class), isNull()))
                 .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo not found"));
 
         // Act & Assert
@@ -158,12 +342,56 @@ class TodoControllerTest {
         verify(todoService).deleteTodo(1L);
     }
 
+    @Test
+    void shouldBulkUpdateCompletion() throws Exception {
+        // Arrange
+        BulkCompletionRequest request = new BulkCompletionRequest(List.of(1L, 2L), null, true);
+        when(todoService.updateCompletion(any(BulkCompletionRequest.class))).thenReturn(2);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/todos/completion")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        verify(todoService).updateCompletion(any(BulkCompletionRequest.class));
+    }
+
+    @Test
+    void shouldBulkDeleteCompletedTodos() throws Exception {
+        // Arrange
+        when(todoService.deleteTodos(null, true)).thenReturn(3);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos").param("completed", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(3));
+
+        verify(todoService).deleteTodos(null, true);
+    }
+
+    @Test
+    void shouldSearchTodos() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(todoService.searchTodos("groc", 0, 20))
+                .thenReturn(List.of(new TodoResponse(1L, "Buy groceries", false, now, now)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search").param("q", "groc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Buy groceries"));
+    }
+
     @Test
     void shouldGetTodosByCompletion() throws Exception {
         // Arrange
         LocalDateTime now = LocalDateTime.now();
-        Todo completedTodo = new Todo(1L, "Completed Task", true, now, now);
-        when(todoService.getTodosByCompletion(true)).thenReturn(List.of(completedTodo));
+        TodoResponse completedTodo = new TodoResponse(1L, "Completed Task", true, now, now);
+        when(todoService.getTodosByCompletion(true, null, TodoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(completedTodo), null, "1"));
 
         // Act & Assert
         mockMvc.perform(get("/api/todos/filter?completed=true"))
@@ -172,7 +400,30 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].completed").value(true));
 
-        verify(todoService).getTodosByCompletion(true);
+        verify(todoService).getTodosByCompletion(true, null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldStreamNdjsonExport() throws Exception {
+        // Arrange
+        when(todoExportService.exportTodos(eq(true), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/todos/export").param("completed", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(todoExportService).exportTodos(eq(true), any(OutputStream.class));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.bannakon.zentasks.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    private BulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new BulkheadDataSource(pool, 1, Duration.ofMillis(20));
+    }
+
+    @Test
+    void getConnection_whenPermitsExhausted_failsFastWithoutTouchingPool() throws SQLException {
+        // Arrange
+        when(pool.getConnection()).thenReturn(connection);
+        bulkhead.getConnection();
+
+        // Act & Assert
+        assertThatThrownBy(() -> bulkhead.getConnection()).isInstanceOf(SQLTransientConnectionException.class);
+        verify(pool, times(1)).getConnection();
+    }
+
+    @Test
+    void close_releasesPermitOnce() throws SQLException {
+        // Arrange
+        when(pool.getConnection()).thenReturn(connection);
+        Connection first = bulkhead.getConnection();
+
+        // Act
+        first.close();
+        first.close();
+
+        // Assert
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+        verify(connection, times(2)).close();
+        assertThat(bulkhead.getConnection()).isNotNull();
+    }
+
+    @Test
+    void getConnection_whenPoolFails_releasesPermit() throws SQLException {
+        // Arrange
+        when(pool.getConnection()).thenThrow(new SQLException("pool timeout"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bulkhead.getConnection()).hasMessage("pool timeout");
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.bannakon.zentasks.datasource;
+
+import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.service.TodoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// เหมือน ReplicaRoutingTest แต่เปิด cache (ค่า default): ค่าที่อ่านจาก replica ต้องไม่ค้างอยู่ใน cache
+@SpringBootTest(properties = {
+        "zentasks.replicas.urls=jdbc:h2:mem:zentasks-replica-cached;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "zentasks.replicas.username=sa",
+        "zentasks.cache.enabled=true"
+})
+@ActiveProfiles("test")
+class ReplicaCachingTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    void shouldNotServeReplicaReadsFromCacheInsideReadYourWritesWindow() {
+        // Arrange: อ่านผ่าน replica หลัง write (replica ยังไม่มีแถวใหม่)
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Cached read my write");
+        todoService.createDataTodo(request);
+        assertThat(todoService.getAllDataTodos(null, 50).getItems())
+                .extracting(TodoResponse::getTitle)
+                .doesNotContain("Cached read my write");
+
+        // Act
+        ReplicaRouting.usePrimary();
+        var primaryPage = todoService.getAllDataTodos(null, 50);
+        ReplicaRouting.clear();
+        var nextPage = todoService.getAllDataTodos(null, 50);
+
+        // Assert: หน้าเดียวกันที่อ่านจาก primary ถูก cache ไว้ได้ ส่วนผลจาก replica ไม่ถูก cache
+        assertThat(primaryPage.getItems())
+                .extracting(TodoResponse::getTitle)
+                .contains("Cached read my write")
+                .doesNotContain("From replica");
+        assertThat(nextPage).isSameAs(primaryPage);
+    }
+}
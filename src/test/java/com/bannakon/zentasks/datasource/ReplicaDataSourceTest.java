@@ -0,0 +1,144 @@
+package com.bannakon.zentasks.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaA;
+
+    @Mock
+    private DataSource replicaB;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection connectionA;
+
+    @Mock
+    private Connection connectionB;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    void shouldRotateReplicasRoundRobin() throws SQLException {
+        // Arrange
+        when(replicaA.getConnection()).thenReturn(connectionA);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        ReplicaDataSource dataSource = dataSource(ReplicaDataSource.Strategy.ROUND_ROBIN, Map.of());
+        long replicaReads = ReplicaRouting.replicaReads();
+
+        // Act & Assert
+        assertThat(dataSource.getConnection()).isSameAs(connectionA);
+        assertThat(dataSource.getConnection()).isSameAs(connectionB);
+        assertThat(dataSource.getConnection()).isSameAs(connectionA);
+        verifyNoInteractions(primary);
+        assertThat(ReplicaRouting.replicaReads()).isEqualTo(replicaReads + 3);
+    }
+
+    @Test
+    void shouldPickReplicaWithFewestActiveConnections() throws SQLException {
+        // Arrange
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        ReplicaDataSource dataSource = dataSource(ReplicaDataSource.Strategy.LEAST_CONNECTIONS,
+                Map.of(replicaA, 7, replicaB, 2));
+
+        // Act & Assert
+        assertThat(dataSource.getConnection()).isSameAs(connectionB);
+        assertThat(dataSource.getConnection()).isSameAs(connectionB);
+    }
+
+    @Test
+    void shouldSkipFailingReplicaAndFallBackToPrimary() throws SQLException {
+        // Arrange
+        when(replicaA.getConnection()).thenThrow(new SQLException("down"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaDataSource dataSource = dataSource(ReplicaDataSource.Strategy.ROUND_ROBIN, Map.of());
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(dataSource.getReplicas()).noneMatch(ReplicaDataSource.Replica::isHealthy);
+
+        // ครั้งถัดไปไม่ลอง replica ที่ล่มแล้ว จนกว่า health check จะผ่าน
+        dataSource.getConnection();
+        verify(replicaA, times(1)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldRestoreReplicaAfterSuccessfulHealthCheck() throws SQLException {
+        // Arrange
+        when(replicaA.getConnection())
+                .thenThrow(new SQLException("down"))
+                .thenReturn(connectionA);
+        when(connectionA.isValid(anyInt())).thenReturn(true);
+        when(replicaB.getConnection()).thenReturn(connectionB);
+        when(connectionB.isValid(anyInt())).thenReturn(true);
+        ReplicaDataSource dataSource = dataSource(ReplicaDataSource.Strategy.ROUND_ROBIN, Map.of());
+        dataSource.getConnection();
+
+        // Act
+        dataSource.checkHealth();
+
+        // Assert
+        assertThat(dataSource.getReplicas()).allMatch(ReplicaDataSource.Replica::isHealthy);
+    }
+
+    @Test
+    void shouldUsePrimaryForReadYourWrites() throws SQLException {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaDataSource dataSource = dataSource(ReplicaDataSource.Strategy.ROUND_ROBIN, Map.of());
+        ReplicaRouting.usePrimary();
+        long replicaReads = ReplicaRouting.replicaReads();
+
+        // Act & Assert
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(replicaA, replicaB);
+        assertThat(ReplicaRouting.replicaReads()).isEqualTo(replicaReads);
+    }
+
+    @Test
+    void shouldDelegateExplicitCredentialsToPrimary() throws SQLException {
+        // Arrange
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+        ReplicaDataSource dataSource = dataSource(ReplicaDataSource.Strategy.ROUND_ROBIN, Map.of());
+
+        // Act & Assert
+        assertThat(dataSource.getConnection("reporting", "secret")).isSameAs(primaryConnection);
+        verifyNoInteractions(replicaA, replicaB);
+    }
+
+    private ReplicaDataSource dataSource(ReplicaDataSource.Strategy strategy, Map<DataSource, Integer> active) {
+        return new ReplicaDataSource(primary,
+                List.of(new ReplicaDataSource.Replica("replica-1", replicaA),
+                        new ReplicaDataSource.Replica("replica-2", replicaB)),
+                strategy,
+                dataSource -> active.getOrDefault(dataSource, 0));
+    }
+}
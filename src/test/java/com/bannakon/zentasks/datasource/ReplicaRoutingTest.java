@@ -0,0 +1,63 @@
+package com.bannakon.zentasks.datasource;
+
+import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.service.TodoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// สอง embedded H2: primary (schema จาก Hibernate) กับ replica (schema + ข้อมูลคนละชุดจาก replica-schema.sql)
+@SpringBootTest(properties = {
+        "zentasks.replicas.urls=jdbc:h2:mem:zentasks-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+        "zentasks.replicas.username=sa",
+        "zentasks.cache.enabled=false"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplicaAndWritesToPrimary() {
+        // Arrange
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Written to primary");
+
+        // Act
+        todoService.createDataTodo(request);
+
+        // Assert
+        assertThat(todoService.getAllDataTodos(null, 50).getItems())
+                .extracting(TodoResponse::getTitle)
+                .containsExactly("From replica");
+    }
+
+    @Test
+    void shouldReadFromPrimaryInsideReadYourWritesWindow() {
+        // Arrange
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Read my write");
+        todoService.createDataTodo(request);
+
+        // Act
+        ReplicaRouting.usePrimary();
+
+        // Assert
+        assertThat(todoService.getAllDataTodos(null, 50).getItems())
+                .extracting(TodoResponse::getTitle)
+                .contains("Read my write")
+                .doesNotContain("From replica");
+    }
+}
@@ -0,0 +1,87 @@
+package com.bannakon.zentasks.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SqlBudgetFilterTest {
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementListener listener = new SqlStatementListener(Duration.ofSeconds(1), 0.0);
+    private SqlBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SqlBudgetFilter(2, meterRegistryProvider);
+    }
+
+    @Test
+    void shouldCountStatementsAndFlagRequestOverBudget() throws Exception {
+        // Arrange
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/todos/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/todos/{id}");
+        int[] seen = new int[1];
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            runStatements(3);
+            seen[0] = SqlRequestStats.current().getStatements();
+        });
+
+        // Assert
+        assertThat(seen[0]).isEqualTo(3);
+        assertThat(SqlRequestStats.current()).isNull();
+        assertThat(meterRegistry.get("zentasks.sql.budget.exceeded")
+                .tag("method", "DELETE")
+                .tag("uri", "/api/todos/{id}")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotFlagRequestWithinBudget() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> runStatements(2));
+
+        // Assert
+        assertThat(meterRegistry.find("zentasks.sql.budget.exceeded").counter()).isNull();
+    }
+
+    @Test
+    void shouldIgnoreStatementsOutsideARequest() {
+        // Act
+        runStatements(1);
+
+        // Assert
+        assertThat(SqlRequestStats.current()).isNull();
+    }
+
+    private void runStatements(int count) {
+        for (int i = 0; i < count; i++) {
+            listener.beforeQuery(new ExecutionInfo(), List.of());
+            listener.afterQuery(new ExecutionInfo(), List.of());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.bannakon.zentasks.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class TodoEventBroadcasterTest {
+
+    // executor ที่ไม่ทำงาน: queue ของ subscriber จะไม่ถูก drain เหมือน client ที่อ่านช้า
+    @Mock
+    private ExecutorService drainExecutor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TodoEventBroadcaster broadcaster(int bufferSize, int replaySize, int maxSubscribers,
+                                             TodoEventBroadcaster.OverflowPolicy policy) {
+        return new TodoEventBroadcaster(bufferSize, replaySize, maxSubscribers, policy, Duration.ofMinutes(1),
+                meterRegistry, drainExecutor);
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // เก็บแต่ละ frame เป็นข้อความตามที่จะเขียนลง response (ข้อความ SSE + JSON ของ data)
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder frame = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                frame.append(part.getData() instanceof String text ? text : OBJECT_MAPPER.writeValueAsString(part.getData()));
+            }
+            frames.add(frame.toString());
+        }
+    }
+
+    @Test
+    void replayAfter_returnsEventsMissedSinceLastEventId() {
+        // Arrange
+        TodoEventBroadcaster broadcaster = broadcaster(16, 10, 10, TodoEventBroadcaster.OverflowPolicy.DROP);
+        broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(1L)));
+        broadcaster.onTodoChanged(TodoChangedEvent.updated(List.of(2L)));
+        broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(3L)));
+
+        // Act
+        List<TodoStreamEvent> missed = broadcaster.replayAfter(broadcaster.eventId(1));
+
+        // Assert
+        assertThat(missed).extracting(TodoStreamEvent::getId).containsExactly(2L, 3L);
+        assertThat(missed).extracting(TodoStreamEvent::getType).containsExactly("updated", "deleted");
+        assertThat(missed.get(1).getIds()).containsExactly(3L);
+    }
+
+    @Test
+    void replayAfter_whenLastEventIdFellOutOfRingBuffer_returnsReset() {
+        // Arrange
+        TodoEventBroadcaster broadcaster = broadcaster(16, 2, 10, TodoEventBroadcaster.OverflowPolicy.DROP);
+        for (long id = 1; id <= 5; id++) {
+            broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(id)));
+        }
+
+        // Act
+        List<TodoStreamEvent> tooOld = broadcaster.replayAfter(broadcaster.eventId(1));
+        List<TodoStreamEvent> fromFuture = broadcaster.replayAfter(broadcaster.eventId(42));
+        List<TodoStreamEvent> inWindow = broadcaster.replayAfter(broadcaster.eventId(3));
+
+        // Assert
+        assertThat(tooOld).singleElement().extracting(TodoStreamEvent::getType).isEqualTo(TodoStreamEvent.RESET);
+        assertThat(fromFuture).singleElement().extracting(TodoStreamEvent::getType).isEqualTo(TodoStreamEvent.RESET);
+        assertThat(inWindow).extracting(TodoStreamEvent::getId).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void replayAfter_idFromAnotherBootOrInstance_returnsReset() {
+        // Arrange: อีก instance (หรือก่อน restart) มี sequence 1..3 เหมือนกันแต่เป็นคนละ event
+        TodoEventBroadcaster other = broadcaster(16, 10, 10, TodoEventBroadcaster.OverflowPolicy.DROP);
+        TodoEventBroadcaster broadcaster = broadcaster(16, 10, 10, TodoEventBroadcaster.OverflowPolicy.DROP);
+        for (long id = 1; id <= 3; id++) {
+            broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(id)));
+        }
+
+        // Act
+        List<TodoStreamEvent> foreign = broadcaster.replayAfter(other.eventId(1));
+        List<TodoStreamEvent> legacy = broadcaster.replayAfter("1");
+
+        // Assert
+        assertThat(other.eventId(1)).isNotEqualTo(broadcaster.eventId(1));
+        assertThat(foreign).singleElement().extracting(TodoStreamEvent::getType).isEqualTo(TodoStreamEvent.RESET);
+        assertThat(legacy).singleElement().extracting(TodoStreamEvent::getType).isEqualTo(TodoStreamEvent.RESET);
+    }
+
+    @Test
+    void onTodoChanged_wholeCollectionChange_isSentAsReset() {
+        // Arrange
+        TodoEventBroadcaster broadcaster = broadcaster(16, 10, 10, TodoEventBroadcaster.OverflowPolicy.DROP);
+
+        // Act
+        broadcaster.onTodoChanged(TodoChangedEvent.bulk(TodoChangedEvent.Type.DELETED));
+
+        // Assert
+        assertThat(broadcaster.replayAfter(broadcaster.eventId(0))).singleElement()
+                .extracting(TodoStreamEvent::getType).isEqualTo(TodoStreamEvent.RESET);
+    }
+
+    @Test
+    void slowSubscriber_withDropPolicy_staysConnected() {
+        // Arrange
+        TodoEventBroadcaster broadcaster = broadcaster(4, 10, 10, TodoEventBroadcaster.OverflowPolicy.DROP);
+        broadcaster.subscribe(null);
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(id)));
+        }
+
+        // Assert
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("zentasks.stream.overflows", "policy", "DROP").count()).isPositive();
+    }
+
+    @Test
+    void slowSubscriber_withDisconnectPolicy_isRemoved() {
+        // Arrange
+        TodoEventBroadcaster broadcaster = broadcaster(4, 10, 10, TodoEventBroadcaster.OverflowPolicy.DISCONNECT);
+        broadcaster.subscribe(null);
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(id)));
+        }
+
+        // Assert
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(meterRegistry.counter("zentasks.stream.overflows", "policy", "DISCONNECT").count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSubscribers_eachReceiveIdenticalFrames() throws Exception {
+        // Arrange: drain จริงหลาย thread พร้อมกัน
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+        TodoEventBroadcaster broadcaster = new TodoEventBroadcaster(1024, 10, 100,
+                TodoEventBroadcaster.OverflowPolicy.DROP, Duration.ofMinutes(1), meterRegistry, executor) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        for (int i = 0; i < 8; i++) {
+            broadcaster.subscribe(null);
+        }
+        int events = 200;
+
+        // Act
+        for (long id = 1; id <= events; id++) {
+            broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(id)));
+        }
+
+        // Assert
+        List<String> expected = new ArrayList<>();
+        expected.add("retry:3000\n:connected\n\n");
+        for (long id = 1; id <= events; id++) {
+            String data = OBJECT_MAPPER.writeValueAsString(TodoStreamEvent.of(id, TodoChangedEvent.deleted(List.of(id))));
+            expected.add("id:" + broadcaster.eventId(id) + "\nevent:deleted\ndata:" + data + "\n\n");
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (emitters.stream().anyMatch(e -> e.frames.size() < expected.size()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        executor.shutdown();
+        assertThat(emitters).hasSize(8).allSatisfy(e -> assertThat(e.frames).containsExactlyElementsOf(expected));
+        assertThat(broadcaster.subscriberCount()).isEqualTo(8);
+    }
+
+    @Test
+    void failedSend_completesEmitterAndRemovesSubscriber() {
+        // Arrange
+        ExecutorService sameThread = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(sameThread).execute(any());
+        List<Throwable> completedWith = new ArrayList<>();
+        TodoEventBroadcaster broadcaster = new TodoEventBroadcaster(16, 10, 10,
+                TodoEventBroadcaster.OverflowPolicy.DROP, Duration.ofMinutes(1), meterRegistry, sameThread) {
+            @Override
+            SseEmitter newEmitter() {
+                // frame แรก (connected) ผ่าน, event ถัดไปพัง
+                return new RecordingEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (!frames.isEmpty()) {
+                            throw new ConcurrentModificationException();
+                        }
+                        super.send(builder);
+                    }
+
+                    @Override
+                    public void completeWithError(Throwable ex) {
+                        completedWith.add(ex);
+                    }
+                };
+            }
+        };
+        broadcaster.subscribe(null);
+
+        // Act
+        broadcaster.onTodoChanged(TodoChangedEvent.deleted(List.of(1L)));
+
+        // Assert: ไม่ค้างอยู่ในสถานะ draining โดยที่ client ไม่รู้ตัว
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(completedWith).singleElement().isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    void subscribe_overMaxSubscribers_throws503() {
+        // Arrange
+        TodoEventBroadcaster broadcaster = broadcaster(4, 10, 1, TodoEventBroadcaster.OverflowPolicy.DROP);
+        broadcaster.subscribe(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> broadcaster.subscribe(null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+}
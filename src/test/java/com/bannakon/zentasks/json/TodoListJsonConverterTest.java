@@ -0,0 +1,83 @@
+package com.bannakon.zentasks.json;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoListJsonConverterTest {
+
+    private static final Type TODO_LIST = ResolvableType.forClassWithGenerics(List.class, TodoResponse.class).getType();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final TodoListJsonConverter converter = new TodoListJsonConverter(objectMapper, 1000);
+
+    @Test
+    void canWrite_onlyTodoResponseListsAsJson() {
+        // Arrange
+        Type strings = ResolvableType.forClassWithGenerics(List.class, String.class).getType();
+
+        // Act & Assert
+        assertThat(converter.canWrite(TODO_LIST, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(strings, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(TODO_LIST, List.class, MediaType.APPLICATION_CBOR)).isFalse();
+        assertThat(converter.canRead(TODO_LIST, null, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    void write_producesSameBytesAsJackson() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<TodoResponse> todos = List.of(
+                new TodoResponse(1L, "Task \"1\"", false, now, now),
+                new TodoResponse(2L, "งานที่ 2", true, now.minusDays(1), now));
+
+        // Act
+        String first = write(todos);
+        String second = write(todos);
+
+        // Assert
+        String expected = objectMapper.writeValueAsString(todos);
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected);
+        assertThat(write(List.of())).isEqualTo("[]");
+    }
+
+    @Test
+    void write_afterTodoChanged_doesNotReuseStaleFragment() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        write(List.of(new TodoResponse(1L, "Before", false, now, now)));
+        TodoResponse renamed = new TodoResponse(1L, "After", false, now, now.plusSeconds(1));
+        TodoResponse toggled = new TodoResponse(1L, "After", true, now, now.plusSeconds(1));
+
+        // Act
+        String afterRename = write(List.of(renamed));
+        converter.onTodoChanged(TodoChangedEvent.bulk(TodoChangedEvent.Type.UPDATED));
+        String afterToggle = write(List.of(toggled));
+
+        // Assert
+        assertThat(afterRename).isEqualTo(objectMapper.writeValueAsString(List.of(renamed)));
+        assertThat(afterToggle).isEqualTo(objectMapper.writeValueAsString(List.of(toggled)));
+    }
+
+    private String write(List<TodoResponse> todos) throws Exception {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(todos, TODO_LIST, MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsString(StandardCharsets.UTF_8);
+    }
+}
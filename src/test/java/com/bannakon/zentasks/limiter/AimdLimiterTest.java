@@ -0,0 +1,85 @@
+package com.bannakon.zentasks.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private AimdLimiter limiter(int initial) {
+        return new AimdLimiter("read", initial, 2, 10, 0.5, Duration.ofMillis(100));
+    }
+
+    @Test
+    void tryAcquire_rejectsOnceLimitIsReached() {
+        // Arrange
+        AimdLimiter limiter = limiter(2);
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInflight()).isEqualTo(2);
+    }
+
+    @Test
+    void release_slowOrFailedRequest_backsOffMultiplicativelyDownToMin() {
+        // Arrange
+        AimdLimiter limiter = limiter(8);
+
+        // Act
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        int afterSlow = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        int afterFailure = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+
+        // Assert
+        assertThat(afterSlow).isEqualTo(4);
+        assertThat(afterFailure).isEqualTo(2);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInflight()).isZero();
+    }
+
+    @Test
+    void release_fastRequestUnderLoad_growsAdditivelyUpToMax() {
+        // Arrange
+        AimdLimiter limiter = limiter(2);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_fastRequestWhileMostlyIdle_keepsLimit() {
+        // Arrange
+        AimdLimiter limiter = limiter(8);
+
+        // Act
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        // Assert
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,73 @@
+package com.bannakon.zentasks.limiter;
+
+import com.bannakon.zentasks.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new ConcurrencyLimitInterceptor(true, Duration.ofSeconds(2), 0.9,
+                1, 1, 10, Duration.ofSeconds(1),
+                1, 1, 10, Duration.ofSeconds(1));
+        interceptor.bindTo(meterRegistry);
+    }
+
+    @Test
+    void preHandle_overReadLimit_throwsWithRetryAfterAndCountsRejection() {
+        // Arrange
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/todos");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/api/todos");
+        interceptor.preHandle(first, new MockHttpServletResponse(), new Object());
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(second, new MockHttpServletResponse(), new Object()))
+                .isInstanceOfSatisfying(ConcurrencyLimitExceededException.class, e -> {
+                    assertThat(e.getLimiter()).isEqualTo("read");
+                    assertThat(e.getRetryAfterSeconds()).isEqualTo(2);
+                });
+        assertThat(meterRegistry.counter("zentasks.concurrency.rejected", "type", "read").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("zentasks.concurrency.inflight").tag("type", "read").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void preHandle_readsAndWritesHaveSeparateLimits() {
+        // Arrange
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/todos"), new MockHttpServletResponse(), new Object());
+
+        // Act
+        boolean writeAllowed = interceptor.preHandle(new MockHttpServletRequest("POST", "/api/todos"),
+                new MockHttpServletResponse(), new Object());
+
+        // Assert
+        assertThat(writeAllowed).isTrue();
+    }
+
+    @Test
+    void afterCompletion_releasesPermit() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/todos/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+
+        // Act
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("PUT", "/api/todos/1"),
+                new MockHttpServletResponse(), new Object())).isTrue();
+    }
+}
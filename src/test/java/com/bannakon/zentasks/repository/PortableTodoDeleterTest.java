@@ -0,0 +1,93 @@
+package com.bannakon.zentasks.repository;
+
+import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.UpdateTodoRequest;
+import com.bannakon.zentasks.entity.TodoTombstone;
+import com.bannakon.zentasks.service.TodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// ทาง delete ทั้งหมดผ่าน TodoService บน H2 (profile test ใช้ zentasks.delete.strategy=portable)
+@SpringBootTest
+@ActiveProfiles("test")
+class PortableTodoDeleterTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TodoDeleter todoDeleter;
+
+    @Test
+    void deleteTodo_removesRowAndWritesTombstone() {
+        // Arrange
+        Long id = create("Delete me");
+
+        // Act
+        todoService.deleteTodo(id);
+
+        // Assert
+        assertThat(todoDeleter).isInstanceOf(PortableTodoDeleter.class);
+        assertThat(todoRepository.existsById(id)).isFalse();
+        assertThat(tombstoneRepository.findById(id)).get().extracting(TodoTombstone::getDeletedAt).isNotNull();
+        assertThatThrownBy(() -> todoService.deleteTodo(id))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void deleteTodos_byIds_deletesOnlyExistingTodos() {
+        // Arrange
+        Long first = create("Bulk one");
+        Long second = create("Bulk two");
+        Long kept = create("Bulk kept");
+
+        // Act
+        int affected = todoService.deleteTodos(List.of(first, second, -5L), null);
+
+        // Assert
+        assertThat(affected).isEqualTo(2);
+        assertThat(todoRepository.findAllById(List.of(first, second, kept))).extracting("id").containsExactly(kept);
+        assertThat(tombstoneRepository.findAllById(List.of(first, second, kept)))
+                .extracting(TodoTombstone::getTodoId).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void deleteTodos_byCompleted_deletesCompletedTodosWithTombstones() {
+        // Arrange
+        Long open = create("Still open");
+        Long done = create("Already done");
+        todoService.updateTodo(done, new UpdateTodoRequest(null, true), null);
+
+        // Act
+        int affected = todoService.deleteTodos(null, true);
+
+        // Assert
+        assertThat(affected).isPositive();
+        assertThat(todoRepository.existsById(done)).isFalse();
+        assertThat(todoRepository.existsById(open)).isTrue();
+        assertThat(tombstoneRepository.existsById(done)).isTrue();
+        assertThat(tombstoneRepository.existsById(open)).isFalse();
+    }
+
+    private Long create(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return todoService.createDataTodo(request).getId();
+    }
+}
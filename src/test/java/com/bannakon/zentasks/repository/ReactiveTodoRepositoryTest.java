@@ -0,0 +1,79 @@
+package com.bannakon.zentasks.repository;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// R2DBC H2 driver แทน PostgreSQL: ตรวจ SQL, การ map แถว และลำดับ (created_at, id)
+class ReactiveTodoRepositoryTest {
+
+    private DatabaseClient databaseClient;
+    private ReactiveTodoRepository reactiveTodoRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///reactive-todos;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"));
+        reactiveTodoRepository = new ReactiveTodoRepository(databaseClient);
+
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+        databaseClient.sql("drop table if exists todos").then()
+                .then(databaseClient.sql("create table todos (id bigint primary key, title varchar(255) not null, " +
+                        "completed boolean not null, created_at timestamp not null, updated_at timestamp, " +
+                        "version bigint default 0 not null)").then())
+                .then(insert(3, "Third", false, base.plusMinutes(2)))
+                .then(insert(1, "First", true, base))
+                .then(insert(2, "Second", false, base.plusMinutes(1)))
+                .block();
+    }
+
+    @Test
+    void shouldStreamAllTodosInCreationOrder() {
+        // Act & Assert
+        StepVerifier.create(reactiveTodoRepository.findAll().map(TodoResponse::getTitle))
+                .expectNext("First", "Second", "Third")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamTodosByCompletion() {
+        // Act & Assert
+        StepVerifier.create(reactiveTodoRepository.findByCompleted(false).map(TodoResponse::getId))
+                .expectNext(2L, 3L)
+                .verifyComplete();
+        StepVerifier.create(reactiveTodoRepository.findByCompleted(true))
+                .assertNext(todo -> {
+                    assertThat(todo.isCompleted()).isTrue();
+                    assertThat(todo.getCreatedAt()).isEqualTo(LocalDateTime.of(2026, 1, 1, 9, 0));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldHonourSubscriberDemand() {
+        // Act & Assert
+        StepVerifier.create(reactiveTodoRepository.findAll(), 1)
+                .expectNextCount(1)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    private Mono<Void> insert(long id, String title, boolean completed, LocalDateTime createdAt) {
+        return databaseClient.sql("insert into todos (id, title, completed, created_at, updated_at) " +
+                        "values (:id, :title, :completed, :createdAt, :createdAt)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("completed", completed)
+                .bind("createdAt", createdAt)
+                .then();
+    }
+}
@@ -0,0 +1,85 @@
+package com.bannakon.zentasks.search;
+
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.bannakon.zentasks.repository.TodoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryTodoSearchEngineTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @InjectMocks
+    private InMemoryTodoSearchEngine searchEngine;
+
+    @Test
+    void shouldRankCloserTitlesFirst() {
+        // Arrange
+        searchEngine.index(1L, "Study Spring Boot");
+        searchEngine.index(2L, "Buy groceries");
+        searchEngine.index(3L, "Spring cleaning");
+
+        // Act
+        List<Long> ranked = searchEngine.rankedIds("spring boot");
+
+        // Assert
+        assertThat(ranked).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void shouldMatchSubstringsAndTolerateTypos() {
+        // Arrange
+        searchEngine.index(1L, "Buy groceries");
+        searchEngine.index(2L, "Complete project");
+
+        // Act & Assert
+        assertThat(searchEngine.rankedIds("grocer")).containsExactly(1L);
+        assertThat(searchEngine.rankedIds("groceires")).containsExactly(1L);
+    }
+
+    @Test
+    void shouldFollowChangeEvents() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        searchEngine.index(1L, "Buy groceries");
+
+        // Act
+        searchEngine.onTodoChanged(TodoChangedEvent.updated(new TodoResponse(1L, "Walk the dog", false, now, now)));
+
+        // Assert
+        assertThat(searchEngine.rankedIds("groceries")).isEmpty();
+        assertThat(searchEngine.rankedIds("dog")).containsExactly(1L);
+
+        searchEngine.onTodoChanged(TodoChangedEvent.deleted(List.of(1L)));
+        assertThat(searchEngine.rankedIds("dog")).isEmpty();
+    }
+
+    @Test
+    void shouldLoadPageInRankOrderAndPruneMissingRows() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        searchEngine.index(1L, "Spring Boot");
+        searchEngine.index(2L, "Spring Boot tutorial");
+        TodoResponse first = new TodoResponse(1L, "Spring Boot", false, now, now);
+        when(todoRepository.findResponsesByIdIn(List.of(1L, 2L))).thenReturn(List.of(first));
+
+        // Act
+        List<TodoResponse> results = searchEngine.search("spring boot", 0, 10);
+
+        // Assert
+        assertThat(results).containsExactly(first);
+        assertThat(searchEngine.rankedIds("spring boot")).containsExactly(1L);
+    }
+}
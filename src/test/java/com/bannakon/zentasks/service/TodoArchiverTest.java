@@ -0,0 +1,99 @@
+package com.bannakon.zentasks.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoArchiverTest {
+
+    @Mock
+    private TodoService todoService;
+
+    // executor ที่ไม่ทำงานเอง: test เรียก run() ตรงๆ หรือดึง task ที่ถูกส่งมาไปรันเอง
+    @Mock
+    private ExecutorService executor;
+
+    private TodoArchiver archiver(boolean enabled, int maxBatches) {
+        return new TodoArchiver(todoService, enabled, Duration.ofDays(30), 100, maxBatches, Duration.ZERO, executor);
+    }
+
+    @Test
+    void archive_stopsAfterFirstPartialBatch() {
+        // Arrange
+        when(todoService.archiveCompleted(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 40);
+
+        // Act
+        archiver(true, 10).run();
+
+        // Assert
+        verify(todoService, times(3)).archiveCompleted(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void archive_movesAtMostMaxBatchesPerRun() {
+        // Arrange
+        when(todoService.archiveCompleted(any(LocalDateTime.class), eq(100))).thenReturn(100);
+
+        // Act
+        archiver(true, 2).run();
+
+        // Assert
+        verify(todoService, times(2)).archiveCompleted(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void archive_failedBatch_stopsRunWithoutThrowing() {
+        // Arrange
+        when(todoService.archiveCompleted(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100)
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        // Act
+        archiver(true, 10).run();
+
+        // Assert
+        verify(todoService, times(2)).archiveCompleted(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void archive_disabled_doesNothing() {
+        // Act
+        archiver(false, 10).archive();
+
+        // Assert
+        verifyNoInteractions(todoService, executor);
+    }
+
+    @Test
+    void archive_handsRunToOwnExecutorAndSkipsTicksWhileRunning() {
+        // Arrange
+        when(todoService.archiveCompleted(any(LocalDateTime.class), eq(100))).thenReturn(0);
+        TodoArchiver archiver = archiver(true, 10);
+
+        // Act: scheduler thread คืนทันที ไม่ได้รัน batch เอง
+        archiver.archive();
+        archiver.archive();
+
+        // Assert
+        ArgumentCaptor<Runnable> run = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(run.capture());
+        verifyNoInteractions(todoService);
+
+        // Act: รอบแรกจบแล้ว tick ถัดไปเริ่มรอบใหม่ได้
+        run.getValue().run();
+        archiver.archive();
+
+        // Assert
+        verify(todoService).archiveCompleted(any(LocalDateTime.class), eq(100));
+        verify(executor, times(2)).execute(any());
+    }
+}
@@ -1,20 +1,37 @@
 package com.bannakon.zentasks.service;
 
+import com.bannakon.zentasks.dto.BulkCompletionRequest;
+import com.bannakon.zentasks.dto.CursorPage;
+import com.bannakon.zentasks.dto.TodoCursor;
 import com.bannakon.zentasks.dto.TodoRequest;
+import com.bannakon.zentasks.dto.TodoResponse;
 import com.bannakon.zentasks.dto.UpdateTodoRequest;
+import com.bannakon.zentasks.entity.ArchivedTodo;
 import com.bannakon.zentasks.entity.Todo;
+import com.bannakon.zentasks.event.TodoChangedEvent;
+import com.bannakon.zentasks.repository.ArchivedTodoRepository;
+import com.bannakon.zentasks.repository.TodoDeleter;
 import com.bannakon.zentasks.repository.TodoRepository;
+import com.bannakon.zentasks.search.TodoSearchEngine;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,6 +43,30 @@ class TodoServiceTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TodoStatsService todoStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TodoSearchEngine todoSearchEngine;
+
+    @Mock
+    private CompletionWriteBehind completionWriteBehind;
+
+    @Mock
+    private ArchivedTodoRepository archivedTodoRepository;
+
+    @Mock
+    private TodoDeleter todoDeleter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -35,19 +76,97 @@ class TodoServiceTest {
         // Arrange
         LocalDateTime now = LocalDateTime.now();
 
-        Todo todo1 = new Todo(1L, "Task 1", false, now, now);
-        Todo todo2 = new Todo(2L, "Task 2", false, now, now);
-        when(todoRepository.findAll()).thenReturn(Arrays.asList(todo1, todo2));
+        TodoResponse todo1 = new TodoResponse(1L, "Task 1", false, now, now);
+        TodoResponse todo2 = new TodoResponse(2L, "Task 2", false, now, now);
+        when(todoRepository.findFirstPage(PageRequest.ofSize(11))).thenReturn(Arrays.asList(todo1, todo2));
 //        when(...).thenReturn(...) = ถ้าเรียก ... ให้ตอบ ...
 
         // Act
-        List<Todo> todos = todoService.getAllDataTodos();
+        CursorPage<TodoResponse> page = todoService.getAllDataTodos(null, 10);
 
         // Assert
+        List<TodoResponse> todos = page.getItems();
         assertThat(todos).hasSize(2);
         assertThat(todos.get(0).getTitle()).isEqualTo("Task 1");
         assertThat(todos.get(1).getTitle()).isEqualTo("Task 2");
-        verify(todoRepository, times(1)).findAll();
+        assertThat(page.hasNext()).isFalse();
+        verify(todoRepository, times(1)).findFirstPage(PageRequest.ofSize(11));
+    }
+
+    @Test
+    void shouldVersionPagesByChangeCounterAndPendingToggles() {
+        // Arrange
+        when(todoRepository.findFirstPage(PageRequest.ofSize(11))).thenReturn(List.of());
+        when(todoStatsService.getChangeCount()).thenReturn(7L);
+        when(completionWriteBehind.pendingFingerprint()).thenReturn(0L, 0xabcL);
+
+        // Act
+        CursorPage<TodoResponse> flushed = todoService.getAllDataTodos(null, 10);
+        CursorPage<TodoResponse> pending = todoService.getAllDataTodos(null, 10);
+
+        // Assert: toggle ที่ค้างอยู่ไม่ถูกบวกเข้า counter (ค่าอื่นจะชนกับ counter ของ instance อื่น/หลัง restart)
+        assertThat(flushed.getVersion()).isEqualTo("7");
+        assertThat(pending.getVersion()).isEqualTo("7.abc");
+    }
+
+    @Test
+    void shouldReturnCursorWhenMoreRowsThanLimit() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        TodoResponse todo1 = new TodoResponse(1L, "Task 1", false, now, now);
+        TodoResponse todo2 = new TodoResponse(2L, "Task 2", false, now, now);
+        when(todoRepository.findFirstPage(PageRequest.ofSize(2))).thenReturn(Arrays.asList(todo1, todo2));
+
+        // Act
+        CursorPage<TodoResponse> page = todoService.getAllDataTodos(null, 1);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(todo1);
+        TodoCursor next = TodoCursor.decode(page.getNext());
+        assertThat(next.getCreatedAt()).isEqualTo(now);
+        assertThat(next.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldContinueFromCursor() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        String cursor = new TodoCursor(now, 5L).encode();
+        TodoResponse todo6 = new TodoResponse(6L, "Task 6", false, now, now);
+        when(todoRepository.findPageAfter(now, 5L, PageRequest.ofSize(11))).thenReturn(List.of(todo6));
+
+        // Act
+        CursorPage<TodoResponse> page = todoService.getAllDataTodos(cursor, 10);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(todo6);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldRejectInvalidCursorAndLimit() {
+        assertThatThrownBy(() -> todoService.getAllDataTodos("not-a-cursor", 10))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> todoService.getAllDataTodos(null, 0))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> todoService.getAllDataTodos(null, TodoService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void shouldGetTodoById() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Todo existing = new Todo(1L, "Task 1", false, now, now);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(todoRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThat(todoService.getTodo(1L)).isNotSameAs(existing).usingRecursiveComparison().isEqualTo(existing);
+        assertThatThrownBy(() -> todoService.getTodo(2L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Todo not found");
     }
 
     @Test
@@ -72,6 +191,30 @@ class TodoServiceTest {
         assertThat(result.getUpdatedAt()).isNotNull();
         assertThat(result.getCreatedAt()).isEqualTo(result.getUpdatedAt());
         verify(todoRepository, times(1)).save(any(Todo.class));
+        verify(todoStatsService).recordCreated(0, 1);
+    }
+
+    @Test
+    void shouldCreateTodosInBatches() {
+        // Arrange
+        List<TodoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < TodoService.INSERT_BATCH_SIZE + 1; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setTitle("Task " + i);
+            requests.add(request);
+        }
+
+        // Act
+        List<Todo> created = todoService.createDataTodos(requests);
+
+        // Assert
+        assertThat(created).hasSize(TodoService.INSERT_BATCH_SIZE + 1);
+        assertThat(created.get(0).getCreatedAt()).isEqualTo(created.get(0).getUpdatedAt());
+        verify(entityManager, times(TodoService.INSERT_BATCH_SIZE + 1)).persist(any(Todo.class));
+        verify(entityManager, times(1)).flush();
+        verify(entityManager, times(1)).clear();
+        verify(todoRepository, never()).save(any(Todo.class));
+        verify(todoStatsService).recordCreated(TodoService.INSERT_BATCH_SIZE + 1, 0);
     }
 
     @Test
@@ -88,7 +231,7 @@ class TodoServiceTest {
         when(todoRepository.save(any(Todo.class))).thenReturn(existing);
 
         // Act
-        Todo result = todoService.updateTodo(1L, update);
+        Todo result = todoService.updateTodo(1L, update, null);
 
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getTitle()).isEqualTo("Task Updated");
@@ -100,6 +243,7 @@ class TodoServiceTest {
 
         verify(todoRepository).findById(1L);
         verify(todoRepository).save(existing);
+        verify(todoStatsService).recordCompletionChanged(true, 1);
 
     }
 
@@ -117,12 +261,13 @@ class TodoServiceTest {
         when(todoRepository.save(any(Todo.class))).thenReturn(existing);
 
         // Act
-        todoService.updateTodo(1L, update);
+        todoService.updateTodo(1L, update, null);
 
         // Assert
         assertThat(existing.getTitle()).isEqualTo("Updated Title Only");
         assertThat(existing.isCompleted()).isFalse(); // Should remain unchanged
         assertThat(existing.getUpdatedAt()).isAfter(createdTime);
+        verify(todoStatsService).recordUpdated(1);
     }
 
     @Test
@@ -139,7 +284,7 @@ class TodoServiceTest {
         when(todoRepository.save(any(Todo.class))).thenReturn(existing);
 
         // Act
-        todoService.updateTodo(1L, update);
+        todoService.updateTodo(1L, update, null);
 
         // Assert
         assertThat(existing.getTitle()).isEqualTo("Original Title"); // Should remain unchanged
@@ -147,6 +292,79 @@ class TodoServiceTest {
         assertThat(existing.getUpdatedAt()).isAfter(createdTime);
     }
 
+    @Test
+    void shouldQueueCompletionToggleWhenWriteBehindAccepts() {
+        // Arrange
+        LocalDateTime createdTime = LocalDateTime.now().minusDays(1);
+        LocalDateTime requestedAt = LocalDateTime.now();
+        Todo existing = new Todo(1L, "Task", false, createdTime, createdTime, 4L);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(completionWriteBehind.offer(1L, true)).thenReturn(true);
+        when(completionWriteBehind.pendingFor(1L))
+                .thenReturn(Optional.of(new CompletionWriteBehind.Pending(true, requestedAt)));
+
+        // Act
+        Todo result = todoService.updateTodo(1L, new UpdateTodoRequest(null, true), null);
+
+        // Assert
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getVersion()).isEqualTo(5L);
+        assertThat(result.getUpdatedAt()).isEqualTo(requestedAt);
+        assertThat(existing.isCompleted()).isFalse();
+        verify(todoRepository, never()).save(any(Todo.class));
+        verifyNoInteractions(todoStatsService, eventPublisher);
+    }
+
+    @Test
+    void shouldFlushPendingToggleBeforeTitleUpdate() {
+        // Arrange
+        LocalDateTime createdTime = LocalDateTime.now().minusDays(1);
+        Todo existing = new Todo(1L, "Old", false, createdTime, createdTime, 4L);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(todoRepository.save(existing)).thenReturn(existing);
+
+        // Act
+        todoService.updateTodo(1L, new UpdateTodoRequest("New", null), 4L);
+
+        // Assert
+        var inOrder = inOrder(completionWriteBehind, transactionManager, todoRepository);
+        inOrder.verify(completionWriteBehind).flush(List.of(1L));
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(todoRepository).findById(1L);
+        verify(completionWriteBehind, never()).offer(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldRejectUpdateWhenIfMatchVersionIsStale() {
+        // Arrange
+        LocalDateTime createdTime = LocalDateTime.now().minusDays(1);
+        Todo existing = new Todo(1L, "Old", false, createdTime, createdTime, 4L);
+        UpdateTodoRequest update = new UpdateTodoRequest("New", null);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        // Assert
+        assertThatThrownBy(() -> todoService.updateTodo(1L, update, 3L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("has been modified");
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    void shouldCountTitleOnlyUpdateAsChange() {
+        // Arrange
+        LocalDateTime createdTime = LocalDateTime.now().minusDays(1);
+        Todo existing = new Todo(1L, "Old", false, createdTime, createdTime, 4L);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(todoRepository.save(existing)).thenReturn(existing);
+
+        // Act
+        todoService.updateTodo(1L, new UpdateTodoRequest("New", null), 4L);
+
+        // Assert
+        verify(todoStatsService).recordUpdated(1);
+        verify(todoStatsService, never()).recordCompletionChanged(anyBoolean(), anyLong());
+    }
+
     @Test
     void shouldThrowWhenUpdateNotFound() {
         // Arrange
@@ -154,7 +372,7 @@ class TodoServiceTest {
         when(todoRepository.findById(99L)).thenReturn(Optional.empty());
 
         // Assert
-        assertThatThrownBy(() -> todoService.updateTodo(99L, update))
+        assertThatThrownBy(() -> todoService.updateTodo(99L, update, null))
                 .isInstanceOf(ResponseStatusException.class)
                 .hasMessageContaining("Todo not found");
 
@@ -162,48 +380,275 @@ class TodoServiceTest {
         verify(todoRepository, never()).save(any(Todo.class));
     }
 
+    @Test
+    void shouldBulkCompleteByIds() {
+        // Arrange
+        BulkCompletionRequest request = new BulkCompletionRequest(List.of(1L, 2L, 3L), null, true);
+        when(todoRepository.updateCompletedByIdIn(eq(List.of(1L, 2L, 3L)), eq(true), any(LocalDateTime.class))).thenReturn(2);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        int affected = todoService.updateCompletion(request);
+
+        // Assert: updatedAt มาจากนาฬิกาเดียวกับ horizon ของ delta sync
+        assertThat(affected).isEqualTo(2);
+        ArgumentCaptor<LocalDateTime> stampedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(todoRepository).updateCompletedByIdIn(eq(List.of(1L, 2L, 3L)), eq(true), stampedAt.capture());
+        assertThat(stampedAt.getValue()).isBetween(before, LocalDateTime.now());
+        verify(todoRepository, never()).findById(any());
+        verify(todoStatsService).recordCompletionChanged(true, 2);
+    }
+
+    @Test
+    void shouldBulkCompleteByCreatedBefore() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
+        BulkCompletionRequest request = new BulkCompletionRequest(null, cutoff, true);
+        when(todoRepository.updateCompletedByCreatedAtBefore(eq(cutoff), eq(true), any(LocalDateTime.class))).thenReturn(10);
+
+        // Act & Assert
+        assertThat(todoService.updateCompletion(request)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRejectBulkCompletionWithoutExactlyOneFilter() {
+        BulkCompletionRequest neither = new BulkCompletionRequest(null, null, true);
+        BulkCompletionRequest both = new BulkCompletionRequest(List.of(1L), LocalDateTime.now(), true);
+
+        assertThatThrownBy(() -> todoService.updateCompletion(neither)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> todoService.updateCompletion(both)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(todoRepository);
+    }
+
     @Test
     void shouldDeleteTodo() {
         // Arrange
-        when(todoRepository.existsById(1L)).thenReturn(true); // ตั้งเงื่อนไขจำลอง: ถ้าเรียกแบบนี้ → ให้ตอบแบบนี้!
+        when(todoDeleter.deleteById(eq(1L), any(LocalDateTime.class))).thenReturn(List.of(true)); // ตั้งเงื่อนไขจำลอง: ถ้าเรียกแบบนี้ → ให้ตอบแบบนี้!
 
         // Act
         todoService.deleteTodo(1L);
 
         // Asset
-        verify(todoRepository).existsById(1L);  // ควรตรวจด้วย
-        verify(todoRepository).deleteById(1L);
+        verify(todoDeleter).deleteById(eq(1L), any(LocalDateTime.class));  // ควรตรวจด้วย
+        verify(todoStatsService).recordDeleted(0, 1);
+        verify(eventPublisher).publishEvent(any(TodoChangedEvent.class));
+        verify(todoRepository, never()).existsById(any());
+        verify(todoRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void shouldThrowWhenDeleteNotFound() {
+        // Arrange
+        when(todoDeleter.deleteById(eq(99L), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // Assert
+        assertThatThrownBy(() -> todoService.deleteTodo(99L))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Todo not found");
+    }
+
+    @Test
+    void shouldBulkDeleteByIdsOrCompleted() {
+        // Arrange
+        when(todoDeleter.deleteByIdIn(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(deleted(1L, false), deleted(2L, true)));
+        when(todoDeleter.deleteByCompleted(eq(true), any(LocalDateTime.class))).thenReturn(40);
+
+        // Act & Assert
+        assertThat(todoService.deleteTodos(List.of(1L, 2L), null)).isEqualTo(2);
+        assertThat(todoService.deleteTodos(null, true)).isEqualTo(40);
+        assertThatThrownBy(() -> todoService.deleteTodos(null, null)).isInstanceOf(ResponseStatusException.class);
+
+        verify(todoStatsService).recordDeleted(1, 1);
+        verify(todoStatsService).recordDeleted(0, 40);
+    }
+
+    @Test
+    void shouldPublishOnlyIdsThatWereDeleted() {
+        // Arrange
+        when(todoDeleter.deleteByIdIn(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class))).thenReturn(List.of(deleted(2L, false)));
+
+        // Act
+        int affected = todoService.deleteTodos(List.of(1L, 2L, 3L), null);
+
+        // Assert
+        assertThat(affected).isEqualTo(1);
+        ArgumentCaptor<TodoChangedEvent> event = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getIds()).containsExactly(2L);
+    }
+
+    @Test
+    void shouldNotPublishWhenNothingWasDeleted() {
+        // Arrange
+        when(todoDeleter.deleteByIdIn(eq(List.of(9L)), any(LocalDateTime.class))).thenReturn(List.of());
+
+        // Act
+        todoService.deleteTodos(List.of(9L), null);
+
+        // Assert
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldSearchWithTrimmedQueryAndOffset() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        TodoResponse match = new TodoResponse(1L, "Buy groceries", false, now, now);
+        when(todoSearchEngine.search("groc", 40, 20)).thenReturn(List.of(match));
+
+        // Act
+        List<TodoResponse> results = todoService.searchTodos("  groc ", 2, 20);
+
+        // Assert
+        assertThat(results).containsExactly(match);
+    }
+
+    @Test
+    void shouldRejectInvalidSearch() {
+        assertThatThrownBy(() -> todoService.searchTodos(" a ", 0, 20)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> todoService.searchTodos(" ab ", 0, 20)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> todoService.searchTodos("groceries", 100, 20)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(todoSearchEngine);
     }
 
     @Test
     void shouldGetTodosByCompletion() {
         // Arrange
         LocalDateTime now = LocalDateTime.now();
-        Todo completedTodo = new Todo(1L, "Completed Task", true, now, now);
-        when(todoRepository.findByCompleted(true)).thenReturn(List.of(completedTodo));
+        TodoResponse completedTodo = new TodoResponse(1L, "Completed Task", true, now, now);
+        when(todoRepository.findFirstPageByCompleted(true, PageRequest.ofSize(11))).thenReturn(List.of(completedTodo));
 
         // Act
-        List<Todo> todos = todoService.getTodosByCompletion(true);
+        List<TodoResponse> todos = todoService.getTodosByCompletion(true, null, 10).getItems();
 
         // Asset
         assertThat(todos).hasSize(1);
         assertThat(todos.get(0).getTitle()).isEqualTo("Completed Task");
         assertThat(todos.get(0).isCompleted()).isTrue();
 
-        verify(todoRepository).findByCompleted(true);
+        var inOrder = inOrder(completionWriteBehind, transactionManager, todoRepository);
+        inOrder.verify(completionWriteBehind).flushAll();
+        inOrder.verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        inOrder.verify(todoRepository).findFirstPageByCompleted(true, PageRequest.ofSize(11));
     }
 
     @Test
     void shouldGetTodosByCompletionReturnEmpty() {
         // Arrange
-        when(todoRepository.findByCompleted(false)).thenReturn(List.of());
+        when(todoRepository.findFirstPageByCompleted(false, PageRequest.ofSize(11))).thenReturn(List.of());
 
         // Act
-        List<Todo> todos = todoService.getTodosByCompletion(false);
+        List<TodoResponse> todos = todoService.getTodosByCompletion(false, null, 10).getItems();
 
         // Assert
         assertThat(todos).isEmpty();
-        verify(todoRepository).findByCompleted(false);
+        verify(todoRepository).findFirstPageByCompleted(false, PageRequest.ofSize(11));
+    }
+
+    @Test
+    void shouldMergeArchivedTodosInKeysetOrderWhenIncludingArchived() {
+        // Arrange
+        LocalDateTime t = LocalDateTime.now().minusDays(60);
+        TodoResponse hot1 = new TodoResponse(1L, "Hot 1", false, t, t);
+        TodoResponse hot3 = new TodoResponse(3L, "Hot 3", false, t.plusDays(2), t);
+        TodoResponse archived2 = new TodoResponse(2L, "Archived 2", true, t.plusDays(1), t);
+        TodoResponse archived4 = new TodoResponse(4L, "Archived 4", true, t.plusDays(3), t);
+        when(todoRepository.findFirstPage(PageRequest.ofSize(4))).thenReturn(List.of(hot1, hot3));
+        when(archivedTodoRepository.findFirstPage(PageRequest.ofSize(4))).thenReturn(List.of(archived2, archived4));
+
+        // Act
+        CursorPage<TodoResponse> page = todoService.getAllDataTodosIncludingArchived(null, 3);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(hot1, archived2, hot3);
+        assertThat(TodoCursor.decode(page.getNext()).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldFallBackToArchiveWhenGettingTodoIncludingArchived() {
+        // Arrange
+        LocalDateTime t = LocalDateTime.now().minusDays(60);
+        when(todoRepository.findById(5L)).thenReturn(Optional.empty());
+        when(archivedTodoRepository.findById(5L))
+                .thenReturn(Optional.of(new ArchivedTodo(5L, "Old", true, t, t, 3L, LocalDateTime.now())));
+
+        // Act
+        Todo todo = todoService.getTodoIncludingArchived(5L);
+
+        // Assert
+        assertThat(todo.getTitle()).isEqualTo("Old");
+        assertThat(todo.getVersion()).isEqualTo(3L);
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldPublishArchivedEventAndBumpChangeCounterWhenArchiving() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(archivedTodoRepository.archiveCompletedBefore(eq(cutoff), eq(100), eq(List.of(-1L)), any(LocalDateTime.class))).thenReturn(List.of(7L, 8L));
+
+        // Act
+        int moved = todoService.archiveCompleted(cutoff, 100);
+
+        // Assert
+        assertThat(moved).isEqualTo(2);
+        var inOrder = inOrder(completionWriteBehind, transactionManager, archivedTodoRepository);
+        inOrder.verify(completionWriteBehind).flushAll();
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(archivedTodoRepository).archiveCompletedBefore(eq(cutoff), eq(100), eq(List.of(-1L)), any(LocalDateTime.class));
+        verify(todoStatsService).recordUpdated(2);
+        ArgumentCaptor<TodoChangedEvent> event = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(TodoChangedEvent.Type.ARCHIVED);
+        assertThat(event.getValue().getIds()).containsExactly(7L, 8L);
+    }
+
+    @Test
+    void shouldNotArchiveTodosWithPendingToggles() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        when(completionWriteBehind.pendingIds()).thenReturn(Set.of(9L));
+        when(archivedTodoRepository.archiveCompletedBefore(eq(cutoff), eq(100), eq(Set.of(9L)), any(LocalDateTime.class))).thenReturn(List.of(7L));
+
+        // Act
+        int moved = todoService.archiveCompleted(cutoff, 100);
+
+        // Assert
+        assertThat(moved).isEqualTo(1);
+        verify(archivedTodoRepository).archiveCompletedBefore(eq(cutoff), eq(100), eq(Set.of(9L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldRollBackArchiveBatchWhenTodoInItIsToggledMeanwhile() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(archivedTodoRepository.archiveCompletedBefore(eq(cutoff), eq(100), eq(List.of(-1L)), any(LocalDateTime.class))).thenReturn(List.of(8L));
+        when(completionWriteBehind.pendingFor(8L))
+                .thenReturn(Optional.of(new CompletionWriteBehind.Pending(false, LocalDateTime.now())));
+
+        // Act
+        int moved = todoService.archiveCompleted(cutoff, 100);
+
+        // Assert
+        assertThat(moved).isZero();
+        verify(status).setRollbackOnly();
+        verify(todoStatsService, never()).recordUpdated(anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static TodoRepository.DeletedTodo deleted(Long id, boolean completed) {
+        return new TodoRepository.DeletedTodo() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Boolean getCompleted() {
+                return completed;
+            }
+        };
+    }
+}
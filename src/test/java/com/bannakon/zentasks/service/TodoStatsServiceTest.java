@@ -0,0 +1,133 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.dto.TodoStatsResponse;
+import com.bannakon.zentasks.repository.TodoDailyStatRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoStatsServiceTest {
+
+    @Mock
+    private TodoDailyStatRepository statRepository;
+
+    @InjectMocks
+    private TodoStatsService todoStatsService;
+
+    @Test
+    void shouldIncrementExistingDay() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        int stripe = TodoStatsService.stripe();
+        when(statRepository.increment(today, stripe, 2, 1, 0, 0, 1, 1, 2)).thenReturn(1);
+
+        // Act
+        todoStatsService.recordCreated(1, 1);
+
+        // Assert
+        verify(statRepository, never()).insertEmptyDay(any(), anyInt());
+    }
+
+    @Test
+    void shouldInsertDayRowOnFirstWriteOfTheDay() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        int stripe = TodoStatsService.stripe();
+        when(statRepository.increment(today, stripe, 0, 0, 0, 3, -2, -1, 3)).thenReturn(0, 1);
+
+        // Act
+        todoStatsService.recordDeleted(2, 1);
+
+        // Assert
+        verify(statRepository).insertEmptyDay(today, stripe);
+        verify(statRepository, times(2)).increment(today, stripe, 0, 0, 0, 3, -2, -1, 3);
+    }
+
+    @Test
+    void shouldStayOnOneStripePerThread() {
+        // Assert
+        assertThat(TodoStatsService.stripe())
+                .isEqualTo(TodoStatsService.stripe())
+                .isBetween(0, TodoStatsService.STRIPES - 1);
+    }
+
+    @Test
+    void shouldSkipNoOpChanges() {
+        // Act
+        todoStatsService.recordCompletionChanged(true, 0);
+
+        // Assert
+        verify(statRepository, never()).increment(any(), anyInt(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldSummariseTotalsAndDailyRollups() {
+        // Arrange
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        TodoDailyStatRepository.Totals totals = mock(TodoDailyStatRepository.Totals.class);
+        when(totals.getOpenCount()).thenReturn(5L);
+        when(totals.getCompletedCount()).thenReturn(3L);
+        when(statRepository.sumTotals()).thenReturn(totals);
+        TodoDailyStatRepository.DailyTotals rollup = mock(TodoDailyStatRepository.DailyTotals.class);
+        when(rollup.getStatDate()).thenReturn(day);
+        when(rollup.getCreatedCount()).thenReturn(4L);
+        when(rollup.getCompletedCount()).thenReturn(2L);
+        when(rollup.getReopenedCount()).thenReturn(1L);
+        when(rollup.getDeletedCount()).thenReturn(1L);
+        when(statRepository.sumDaysBetween(day, day)).thenReturn(List.of(rollup));
+
+        // Act
+        TodoStatsResponse stats = todoStatsService.getStats(day, day);
+
+        // Assert
+        assertThat(stats.getOpen()).isEqualTo(5);
+        assertThat(stats.getCompleted()).isEqualTo(3);
+        assertThat(stats.getTotal()).isEqualTo(8);
+        assertThat(stats.getDaily()).hasSize(1);
+        assertThat(stats.getDaily().get(0).getCreated()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldLockStatsBeforeRecountingAndKeepChangeCounterMonotonic() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        int stripe = TodoStatsService.stripe();
+        when(statRepository.sumChangeCount()).thenReturn(41L);
+        when(statRepository.rebuildFromTodos(TodoStatsService.STRIPES)).thenReturn(7);
+        when(statRepository.increment(today, stripe, 0, 0, 0, 0, 0, 0, 42)).thenReturn(1);
+
+        // Act
+        int rows = todoStatsService.rebuild();
+
+        // Assert
+        assertThat(rows).isEqualTo(7);
+        InOrder inOrder = inOrder(statRepository);
+        inOrder.verify(statRepository).lockAllStats();
+        inOrder.verify(statRepository).sumChangeCount();
+        inOrder.verify(statRepository).deleteAllStats();
+        inOrder.verify(statRepository).rebuildFromTodos(TodoStatsService.STRIPES);
+        inOrder.verify(statRepository).increment(today, stripe, 0, 0, 0, 0, 0, 0, 42);
+    }
+
+    @Test
+    void shouldRejectInvalidRange() {
+        LocalDate today = LocalDate.now();
+        assertThatThrownBy(() -> todoStatsService.getStats(today, today.minusDays(1)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
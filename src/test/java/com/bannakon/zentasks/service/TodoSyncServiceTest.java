@@ -0,0 +1,154 @@
+package com.bannakon.zentasks.service;
+
+import com.bannakon.zentasks.datasource.ReplicaRouting;
+import com.bannakon.zentasks.dto.SyncToken;
+import com.bannakon.zentasks.dto.TodoChangesResponse;
+import com.bannakon.zentasks.dto.TodoResponse;
+import com.bannakon.zentasks.entity.TodoTombstone;
+import com.bannakon.zentasks.repository.TodoRepository;
+import com.bannakon.zentasks.repository.TodoTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoSyncServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private CompletionWriteBehind completionWriteBehind;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoSyncService todoSyncService;
+
+    @BeforeEach
+    void setUp() {
+        todoSyncService = new TodoSyncService(todoRepository, tombstoneRepository, completionWriteBehind, transactionManager,
+                Duration.ofSeconds(5), Duration.ofDays(30));
+    }
+
+    @Test
+    void getChanges_caughtUp_returnsChangesAndTombstonesWithTokenAtHorizon() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        TodoResponse changed = new TodoResponse(1L, "Task 1", true, since.minusDays(1), since.plusMinutes(1));
+        when(todoRepository.findChangedAfter(eq(since), eq(7L), any(), eq(PageRequest.ofSize(11))))
+                .thenReturn(List.of(changed));
+        when(tombstoneRepository.findDeletedAfter(eq(since), eq(3L), any(), eq(PageRequest.ofSize(11))))
+                .thenReturn(List.of(new TodoTombstone(2L, since.plusMinutes(2))));
+
+        // Act
+        TodoChangesResponse response = todoSyncService.getChanges(new SyncToken(since, 7L, since, 3L).encode(), 10);
+
+        // Assert
+        assertThat(response.getChanged()).containsExactly(changed);
+        assertThat(response.getDeleted()).containsExactly(2L);
+        assertThat(response.isHasMore()).isFalse();
+        SyncToken next = SyncToken.decode(response.getSyncToken());
+        assertThat(next.getChangedAt()).isAfter(since.plusMinutes(2)).isBefore(LocalDateTime.now().minusSeconds(4));
+        assertThat(next.getChangedId()).isZero();
+        assertThat(next.getDeletedAt()).isEqualTo(next.getChangedAt());
+        // flush ก่อนเปิด transaction อ่าน ไม่ใช่ซ้อนข้างใน
+        var inOrder = inOrder(completionWriteBehind, transactionManager, todoRepository);
+        inOrder.verify(completionWriteBehind).flushAll();
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(todoRepository).findChangedAfter(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void getChanges_moreThanLimit_returnsTokenAtLastRow() {
+        // Arrange
+        LocalDateTime t = LocalDateTime.now().minusHours(1);
+        TodoResponse first = new TodoResponse(1L, "Task 1", false, t, t);
+        TodoResponse second = new TodoResponse(2L, "Task 2", false, t, t);
+        TodoResponse third = new TodoResponse(3L, "Task 3", false, t, t.plusSeconds(1));
+        when(todoRepository.findChangedAfter(any(), eq(0L), any(), eq(PageRequest.ofSize(3))))
+                .thenReturn(List.of(first, second, third));
+        when(tombstoneRepository.findDeletedAfter(any(), eq(0L), any(), eq(PageRequest.ofSize(3))))
+                .thenReturn(List.of());
+
+        // Act
+        TodoChangesResponse response = todoSyncService.getChanges(null, 2);
+
+        // Assert
+        assertThat(response.getChanged()).containsExactly(first, second);
+        assertThat(response.isHasMore()).isTrue();
+        SyncToken next = SyncToken.decode(response.getSyncToken());
+        assertThat(next.getChangedAt()).isEqualTo(t);
+        assertThat(next.getChangedId()).isEqualTo(2L);
+    }
+
+    @Test
+    void getChanges_readsFromPrimaryEvenOutsideReadYourWritesWindow() {
+        // Arrange
+        List<Boolean> primaryOnly = new ArrayList<>();
+        when(todoRepository.findChangedAfter(any(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            primaryOnly.add(ReplicaRouting.isPrimaryOnly());
+            return List.of();
+        });
+        when(tombstoneRepository.findDeletedAfter(any(), anyLong(), any(), any())).thenReturn(List.of());
+
+        // Act
+        todoSyncService.getChanges(null, 10);
+
+        // Assert: replica ที่ตามหลังเกิน commit-lag จะทำให้ token ข้ามแถวที่ยังไม่ถูก replicate ไปตลอด
+        assertThat(primaryOnly).containsExactly(true);
+        assertThat(ReplicaRouting.isPrimaryOnly()).isFalse();
+    }
+
+    @Test
+    void getChanges_tokenOlderThanRetention_throwsGone() {
+        // Arrange
+        LocalDateTime old = LocalDateTime.now().minusDays(31);
+        String token = new SyncToken(old, 1L, old, 1L).encode();
+
+        // Act & Assert
+        assertThatThrownBy(() -> todoSyncService.getChanges(token, 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GONE));
+        verifyNoInteractions(todoRepository, tombstoneRepository);
+    }
+
+    @Test
+    void getChanges_invalidToken_throwsBadRequest() {
+        // Act & Assert
+        assertThatThrownBy(() -> todoSyncService.getChanges("not-a-token", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void purgeTombstones_deletesTombstonesOlderThanRetention() {
+        // Arrange
+        when(tombstoneRepository.deleteByDeletedAtBefore(any())).thenReturn(5);
+
+        // Act
+        todoSyncService.purgeTombstones();
+
+        // Assert
+        verify(tombstoneRepository).deleteByDeletedAtBefore(argThat(
+                before -> before.isBefore(LocalDateTime.now().minusDays(29))));
+    }
+}
@@ -0,0 +1,24 @@
+-- Stand-in read replica for ReplicaRoutingTest: same table, different rows than the primary
+CREATE TABLE IF NOT EXISTS todos (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    completed BOOLEAN NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+MERGE INTO todos (id, title, completed, created_at, updated_at) KEY (id)
+    VALUES (1000, 'From replica', false, TIMESTAMP '2026-01-01 00:00:00', TIMESTAMP '2026-01-01 00:00:00');
+-- list pages read the change counter in the same read-only transaction (collection ETag)
+CREATE TABLE IF NOT EXISTS todo_daily_stats (
+    stat_date DATE NOT NULL,
+    stripe INT DEFAULT 0 NOT NULL,
+    created_count BIGINT NOT NULL,
+    completed_count BIGINT NOT NULL,
+    reopened_count BIGINT NOT NULL,
+    deleted_count BIGINT NOT NULL,
+    open_delta BIGINT NOT NULL,
+    completed_delta BIGINT NOT NULL,
+    change_count BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (stat_date, stripe)
+);